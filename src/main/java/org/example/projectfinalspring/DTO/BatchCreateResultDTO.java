@@ -0,0 +1,54 @@
+package org.example.projectfinalspring.DTO;
+
+import java.util.List;
+
+public class BatchCreateResultDTO {
+
+    private int created;
+
+    private List<Long> ids;
+
+    private List<BatchItemErrorDTO> errors;
+
+    public BatchCreateResultDTO() {
+    }
+
+    public BatchCreateResultDTO(List<Long> ids, List<BatchItemErrorDTO> errors) {
+        this.created = ids.size();
+        this.ids = ids;
+        this.errors = errors;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public List<BatchItemErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<BatchItemErrorDTO> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchCreateResultDTO{" +
+                "created=" + created +
+                ", ids=" + ids +
+                ", errors=" + errors +
+                '}';
+    }
+}
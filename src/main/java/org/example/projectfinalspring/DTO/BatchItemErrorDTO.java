@@ -0,0 +1,52 @@
+package org.example.projectfinalspring.DTO;
+
+public class BatchItemErrorDTO {
+
+    private int index;
+
+    private String field;
+
+    private String message;
+
+    public BatchItemErrorDTO() {
+    }
+
+    public BatchItemErrorDTO(int index, String field, String message) {
+        this.index = index;
+        this.field = field;
+        this.message = message;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public void setField(String field) {
+        this.field = field;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchItemErrorDTO{" +
+                "index=" + index +
+                ", field='" + field + '\'' +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
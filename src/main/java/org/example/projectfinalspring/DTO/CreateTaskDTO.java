@@ -2,7 +2,9 @@ package org.example.projectfinalspring.DTO;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import org.example.projectfinalspring.entities.TaskStatus;
 
 import java.time.LocalDate;
 
@@ -18,7 +20,7 @@ public class CreateTaskDTO {
     private LocalDate deadline;
 
     @NotBlank
-    @Size(max = 20)
+    @Pattern(regexp = TaskStatus.PATTERN, flags = Pattern.Flag.CASE_INSENSITIVE)
     private String status;
 
     public CreateTaskDTO() {
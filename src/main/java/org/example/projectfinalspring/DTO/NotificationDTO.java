@@ -0,0 +1,68 @@
+package org.example.projectfinalspring.DTO;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+public class NotificationDTO {
+
+    private Long id;
+
+    private Long taskId;
+
+    private String title;
+
+    private LocalDate deadline;
+
+    private OffsetDateTime createdAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public LocalDate getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(LocalDate deadline) {
+        this.deadline = deadline;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(OffsetDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "NotificationDTO{" +
+                "id=" + id +
+                ", taskId=" + taskId +
+                ", title='" + title + '\'' +
+                ", deadline=" + deadline +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
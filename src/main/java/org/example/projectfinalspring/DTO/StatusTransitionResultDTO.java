@@ -0,0 +1,42 @@
+package org.example.projectfinalspring.DTO;
+
+import java.util.List;
+
+public class StatusTransitionResultDTO {
+
+    private int updated;
+
+    private List<Long> ids;
+
+    public StatusTransitionResultDTO() {
+    }
+
+    public StatusTransitionResultDTO(int updated, List<Long> ids) {
+        this.updated = updated;
+        this.ids = ids;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    @Override
+    public String toString() {
+        return "StatusTransitionResultDTO{" +
+                "updated=" + updated +
+                ", ids=" + ids +
+                '}';
+    }
+}
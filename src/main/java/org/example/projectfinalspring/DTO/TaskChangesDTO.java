@@ -0,0 +1,66 @@
+package org.example.projectfinalspring.DTO;
+
+import java.util.List;
+
+public class TaskChangesDTO {
+
+    private List<TaskDTO> changed;
+
+    private List<Long> deleted;
+
+    private String next;
+
+    private boolean hasMore;
+
+    public TaskChangesDTO() {
+    }
+
+    public TaskChangesDTO(List<TaskDTO> changed, List<Long> deleted, String next, boolean hasMore) {
+        this.changed = changed;
+        this.deleted = deleted;
+        this.next = next;
+        this.hasMore = hasMore;
+    }
+
+    public List<TaskDTO> getChanged() {
+        return changed;
+    }
+
+    public void setChanged(List<TaskDTO> changed) {
+        this.changed = changed;
+    }
+
+    public List<Long> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<Long> deleted) {
+        this.deleted = deleted;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskChangesDTO{" +
+                "changed=" + changed +
+                ", deleted=" + deleted +
+                ", next='" + next + '\'' +
+                ", hasMore=" + hasMore +
+                '}';
+    }
+}
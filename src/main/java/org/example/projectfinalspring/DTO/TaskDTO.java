@@ -4,6 +4,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 
 public class TaskDTO {
 
@@ -24,6 +25,12 @@ public class TaskDTO {
 
     private UserDTO user;
 
+    private Long version;
+
+    private OffsetDateTime createdAt;
+
+    private OffsetDateTime updatedAt;
+
     public TaskDTO() {
     }
 
@@ -84,6 +91,30 @@ public class TaskDTO {
         this.user = user;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(OffsetDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(OffsetDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     @Override
     public String toString() {
         return "TaskDTO{" +
@@ -93,6 +124,9 @@ public class TaskDTO {
                 ", deadline=" + deadline +
                 ", status='" + status + '\'' +
                 ", user=" + user +
+                ", version=" + version +
+                ", createdAt=" + createdAt +
+                ", updatedAt=" + updatedAt +
                 '}';
     }
 }
@@ -0,0 +1,42 @@
+package org.example.projectfinalspring.DTO;
+
+import java.util.List;
+
+public class TaskPageDTO {
+
+    private List<TaskDTO> items;
+
+    private String next;
+
+    public TaskPageDTO() {
+    }
+
+    public TaskPageDTO(List<TaskDTO> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    public List<TaskDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<TaskDTO> items) {
+        this.items = items;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskPageDTO{" +
+                "items=" + items +
+                ", next='" + next + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.projectfinalspring.DTO;
+
+import java.util.Map;
+
+public class TaskStatsDTO {
+
+    private Long userId;
+
+    private Map<String, Long> byStatus;
+
+    private long total;
+
+    private long overdue;
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Map<String, Long> getByStatus() {
+        return byStatus;
+    }
+
+    public void setByStatus(Map<String, Long> byStatus) {
+        this.byStatus = byStatus;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public long getOverdue() {
+        return overdue;
+    }
+
+    public void setOverdue(long overdue) {
+        this.overdue = overdue;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskStatsDTO{" +
+                "userId=" + userId +
+                ", byStatus=" + byStatus +
+                ", total=" + total +
+                ", overdue=" + overdue +
+                '}';
+    }
+}
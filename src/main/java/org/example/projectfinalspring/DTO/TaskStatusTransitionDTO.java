@@ -0,0 +1,91 @@
+package org.example.projectfinalspring.DTO;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import org.example.projectfinalspring.entities.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class TaskStatusTransitionDTO {
+
+    @Pattern(regexp = TaskStatus.PATTERN, flags = Pattern.Flag.CASE_INSENSITIVE)
+    private String fromStatus;
+
+    private LocalDate deadlineFrom;
+
+    private LocalDate deadlineTo;
+
+    @Size(max = 10_000)
+    private List<Long> ids;
+
+    @NotBlank
+    @Pattern(regexp = TaskStatus.PATTERN, flags = Pattern.Flag.CASE_INSENSITIVE)
+    private String targetStatus;
+
+    private boolean returnIds;
+
+    public TaskStatusTransitionDTO() {
+    }
+
+    public String getFromStatus() {
+        return fromStatus;
+    }
+
+    public void setFromStatus(String fromStatus) {
+        this.fromStatus = fromStatus;
+    }
+
+    public LocalDate getDeadlineFrom() {
+        return deadlineFrom;
+    }
+
+    public void setDeadlineFrom(LocalDate deadlineFrom) {
+        this.deadlineFrom = deadlineFrom;
+    }
+
+    public LocalDate getDeadlineTo() {
+        return deadlineTo;
+    }
+
+    public void setDeadlineTo(LocalDate deadlineTo) {
+        this.deadlineTo = deadlineTo;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public String getTargetStatus() {
+        return targetStatus;
+    }
+
+    public void setTargetStatus(String targetStatus) {
+        this.targetStatus = targetStatus;
+    }
+
+    public boolean isReturnIds() {
+        return returnIds;
+    }
+
+    public void setReturnIds(boolean returnIds) {
+        this.returnIds = returnIds;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskStatusTransitionDTO{" +
+                "fromStatus='" + fromStatus + '\'' +
+                ", deadlineFrom=" + deadlineFrom +
+                ", deadlineTo=" + deadlineTo +
+                ", ids=" + ids +
+                ", targetStatus='" + targetStatus + '\'' +
+                ", returnIds=" + returnIds +
+                '}';
+    }
+}
@@ -2,7 +2,9 @@ package org.example.projectfinalspring.DTO;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import org.example.projectfinalspring.entities.TaskStatus;
 
 import java.time.LocalDate;
 
@@ -18,9 +20,11 @@ public class UpdateTaskDTO {
     private LocalDate deadline;
 
     @NotBlank
-    @Size(max = 20)
+    @Pattern(regexp = TaskStatus.PATTERN, flags = Pattern.Flag.CASE_INSENSITIVE)
     private String status;
 
+    private Long version;
+
     public UpdateTaskDTO(String title, String description, LocalDate deadline, String status) {
         this.title = title;
         this.description = description;
@@ -63,6 +67,14 @@ public class UpdateTaskDTO {
         this.status = status;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "UpdateTaskDTO{" +
@@ -70,6 +82,7 @@ public class UpdateTaskDTO {
                 ", description='" + description + '\'' +
                 ", deadline=" + deadline +
                 ", status='" + status + '\'' +
+                ", version=" + version +
                 '}';
     }
 }
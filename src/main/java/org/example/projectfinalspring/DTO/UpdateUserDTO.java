@@ -17,6 +17,8 @@ public class UpdateUserDTO {
 
     private String role;
 
+    private Long version;
+
     public UpdateUserDTO() {
     }
 
@@ -59,6 +61,14 @@ public class UpdateUserDTO {
         this.role = role;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "UpdateUserDTO{" +
@@ -66,6 +76,7 @@ public class UpdateUserDTO {
                 ", username='" + username + '\'' +
                 ", email='" + email + '\'' +
                 ", role='" + role + '\'' +
+                ", version=" + version +
                 '}';
     }
 }
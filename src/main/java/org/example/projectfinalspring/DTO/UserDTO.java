@@ -16,6 +16,8 @@ public class UserDTO {
 
     private String role;
 
+    private Long version;
+
     public UserDTO() {
     }
 
@@ -58,6 +60,14 @@ public class UserDTO {
         this.role = role;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "UserDTO{" +
@@ -65,6 +75,7 @@ public class UserDTO {
                 ", username='" + username + '\'' +
                 ", email='" + email + '\'' +
                 ", role='" + role + '\'' +
+                ", version=" + version +
                 '}';
     }
 }
@@ -0,0 +1,89 @@
+package org.example.projectfinalspring.DTO;
+
+import java.time.OffsetDateTime;
+
+public class UserDeletionJobDTO {
+
+    private String id;
+
+    private Long userId;
+
+    private String status;
+
+    private long deletedTasks;
+
+    private OffsetDateTime submittedAt;
+
+    private OffsetDateTime finishedAt;
+
+    private String error;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getDeletedTasks() {
+        return deletedTasks;
+    }
+
+    public void setDeletedTasks(long deletedTasks) {
+        this.deletedTasks = deletedTasks;
+    }
+
+    public OffsetDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(OffsetDateTime submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public OffsetDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(OffsetDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    @Override
+    public String toString() {
+        return "UserDeletionJobDTO{" +
+                "id='" + id + '\'' +
+                ", userId=" + userId +
+                ", status='" + status + '\'' +
+                ", deletedTasks=" + deletedTasks +
+                ", submittedAt=" + submittedAt +
+                ", finishedAt=" + finishedAt +
+                ", error='" + error + '\'' +
+                '}';
+    }
+}
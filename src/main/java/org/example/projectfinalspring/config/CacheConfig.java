@@ -0,0 +1,51 @@
+package org.example.projectfinalspring.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.xml.XmlConfiguration;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+
+import javax.cache.CacheManager;
+import java.io.IOException;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Кэш второго уровня Hibernate на Ehcache (JCache). Менеджер кэшей создаётся здесь,
+ * чтобы Hibernate и метрики работали с одними и теми же регионами.
+ * <p>
+ * Менеджер свой у каждого контекста: Caching.getCachingProvider() отдаёт общий на JVM,
+ * и закрытие одного контекста (например, в тестах) закрывало бы кэши всех остальных.
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() throws IOException {
+        ClassLoader classLoader = getClass().getClassLoader();
+        XmlConfiguration configuration =
+                new XmlConfiguration(new ClassPathResource("ehcache.xml").getURL(), classLoader);
+        // Уникальный URI — ещё и уникальные имена JMX-бинов статистики
+        URI uri = URI.create("urn:ehcache:hibernate:" + UUID.randomUUID());
+        return new EhcacheCachingProvider().getCacheManager(uri, configuration);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> {
+            for (String name : hibernateCacheManager.getCacheNames()) {
+                JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(name));
+            }
+        };
+    }
+}
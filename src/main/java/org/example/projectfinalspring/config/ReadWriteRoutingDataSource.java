@@ -0,0 +1,49 @@
+package org.example.projectfinalspring.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Направляет соединения read-only транзакций на реплику, всё остальное — на основную базу.
+ * Решение принимается при получении соединения, поэтому снаружи оборачивается в LazyConnectionDataSourceProxy.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReadWriteRoutingDataSource(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String principal = ReadYourWritesTracker.currentPrincipal();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // Окно «читаю свои записи» отсчитывается от фиксации, а не от начала транзакции
+            if (principal != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        tracker.markWrite(principal);
+                    }
+                });
+            }
+            return Route.PRIMARY;
+        }
+        return routesToReplica(tracker) ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    /**
+     * Уйдёт ли чтение текущей транзакции на реплику: транзакция read-only и пользователь не писал недавно.
+     */
+    static boolean routesToReplica(ReadYourWritesTracker tracker) {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !tracker.isSticky(ReadYourWritesTracker.currentPrincipal());
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.projectfinalspring.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+
+/**
+ * Помнит пользователей, недавно выполнивших запись. Пока окно не истекло,
+ * их читающие транзакции идут на основную базу, чтобы не увидеть данные до своей записи из-за отставания реплики.
+ */
+public class ReadYourWritesTracker {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window, long maximumSize) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    public void markWrite(String principal) {
+        recentWriters.put(principal, Boolean.TRUE);
+    }
+
+    public boolean isSticky(String principal) {
+        return principal != null && recentWriters.getIfPresent(principal) != null;
+    }
+
+    /**
+     * Имя текущего аутентифицированного пользователя или null для анонимных запросов и фоновых задач.
+     */
+    public static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
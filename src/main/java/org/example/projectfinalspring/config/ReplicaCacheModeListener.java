@@ -0,0 +1,49 @@
+package org.example.projectfinalspring.config;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Транзакции, читающие с реплики, не кладут сущности и результаты запросов в кэш второго уровня:
+ * иначе отстающие строки из общего кэша получили бы все, включая пользователя, который только что их изменил.
+ * Читать кэш при этом можно — в нём только данные основной базы, а запись обновляет его при фиксации.
+ */
+public class ReplicaCacheModeListener implements TransactionExecutionListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ReadYourWritesTracker tracker;
+
+    public ReplicaCacheModeListener(EntityManagerFactory entityManagerFactory, ReadYourWritesTracker tracker) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.tracker = tracker;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure != null || !transaction.isReadOnly()
+                || !ReadWriteRoutingDataSource.routesToReplica(tracker)) {
+            return;
+        }
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if (entityManager == null) {
+            return;
+        }
+        // Свойство, а не Session.setCacheMode: find с подсказками берёт режим записи в кэш из свойств сессии.
+        // При open-in-view сессия живёт дольше транзакции, поэтому прежний режим возвращается после неё
+        CacheStoreMode previousStoreMode = entityManager.getCacheStoreMode();
+        entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, previousStoreMode);
+            }
+        });
+    }
+}
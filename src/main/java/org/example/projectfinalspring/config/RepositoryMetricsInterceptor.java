@@ -0,0 +1,72 @@
+package org.example.projectfinalspring.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замеряет вызовы методов Spring Data репозиториев (таймер {@code db.repository}) и на время вызова
+ * запоминает метод в потоке, чтобы SqlMetricsListener мог указать его в журнале медленных запросов.
+ * Для методов, возвращающих Stream, замеряется только выполнение запроса, без чтения строк.
+ */
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private final MeterRegistry registry;
+    private final String repository;
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsInterceptor(MeterRegistry registry, Class<?> repositoryInterface) {
+        this.registry = registry;
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    /**
+     * Метод репозитория, выполняющийся в текущем потоке, например {@code TaskRepository.findByUserId}.
+     */
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        String previous = CURRENT.get();
+        CURRENT.set(repository + "." + method.getName());
+        long start = System.nanoTime();
+        String exception = "none";
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Timer timer = "none".equals(exception)
+                    ? timers.computeIfAbsent(method, m -> timer(m, "none"))
+                    : timer(method, exception);
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    private Timer timer(Method method, String exception) {
+        return Timer.builder("db.repository")
+                .description("Spring Data repository method latency")
+                .tag("repository", repository)
+                .tag("method", method.getName())
+                .tag("exception", exception)
+                .register(registry);
+    }
+}
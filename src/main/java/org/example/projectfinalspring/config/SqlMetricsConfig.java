@@ -0,0 +1,65 @@
+package org.example.projectfinalspring.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Замер SQL через datasource-proxy вместо show-sql и TRACE-логирования параметров.
+ * Оборачивается только бин {@code dataSource}, через который работает JPA: при маршрутизации на реплику
+ * это внешний прокси, поэтому каждый запрос учитывается ровно один раз.
+ */
+@Configuration
+public class SqlMetricsConfig {
+
+    @Bean
+    public SqlMetricsListener sqlMetricsListener(MeterRegistry registry,
+                                                 @Value("${app.sql.slow-query-threshold:500ms}") Duration threshold) {
+        return new SqlMetricsListener(registry, threshold);
+    }
+
+    // Текст запроса в теге: число разных запросов ограничено, лишние таймеры не регистрируются
+    @Bean
+    public MeterFilter sqlStatementTagLimit(@Value("${app.sql.max-statement-tags:500}") int maxStatements) {
+        return MeterFilter.maximumAllowableTags("db.sql", "statement", maxStatements, MeterFilter.deny());
+    }
+
+    @Bean
+    public static BeanPostProcessor sqlMetricsDataSourcePostProcessor(ObjectProvider<SqlMetricsListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(listener.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(new RepositoryMetricsInterceptor(
+                                    registry.getObject(), information.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
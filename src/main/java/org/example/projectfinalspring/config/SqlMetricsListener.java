@@ -0,0 +1,133 @@
+package org.example.projectfinalspring.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Время выполнения SQL: таймер {@code db.sql} с нормализованным текстом запроса в теге {@code statement}
+ * и журнал запросов дольше порога вместе с типами параметров и методом репозитория. Значения параметров
+ * в журнал не пишутся: среди них хэши паролей и refresh-токенов. Заодно копит время SQL
+ * текущего потока для журнала доступа.
+ */
+public class SqlMetricsListener implements QueryExecutionListener {
+    private static final Logger slowLog = LoggerFactory.getLogger("org.example.projectfinalspring.sql.slow");
+
+    private static final String START = SqlMetricsListener.class.getName() + ".start";
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // IN (?, ?, ?) с разным числом параметров — один и тот же запрос
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    // Многострочный VALUES (...), (...) сворачивается до первой строки
+    private static final Pattern VALUES_ROWS = Pattern.compile(
+            "(VALUES\\s*\\((?:[^()]|\\([^()]*\\))*\\))(?:\\s*,\\s*\\((?:[^()]|\\([^()]*\\))*\\))+",
+            Pattern.CASE_INSENSITIVE);
+
+    // long[1], а не Long: накопление не выделяет память на каждый запрос
+    private static final ThreadLocal<long[]> DB_TIME = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final MeterRegistry registry;
+    private final long slowThresholdNanos;
+    // Таймеры по исходному тексту запроса: нормализация и поиск в реестре — только на первом выполнении.
+    // Индекс в массиве — сочетание batch и outcome, см. timerIndex
+    private final Cache<String, Timer[]> timers = Caffeine.newBuilder()
+            .maximumSize(2_000)
+            .build();
+
+    public SqlMetricsListener(MeterRegistry registry, Duration slowThreshold) {
+        this.registry = registry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    /**
+     * Обнуляет время SQL текущего потока, вызывается в начале обработки HTTP запроса.
+     */
+    public static void resetDbTime() {
+        DB_TIME.get()[0] = 0;
+    }
+
+    /**
+     * Суммарное время SQL текущего потока с последнего {@link #resetDbTime()}, в наносекундах.
+     */
+    public static long dbTimeNanos() {
+        return DB_TIME.get()[0];
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START, Long.class);
+        if (start == null || queryInfoList.isEmpty()) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        DB_TIME.get()[0] += elapsed;
+        String sql = queryInfoList.get(0).getQuery();
+        timer(sql, execInfo.isBatch(), execInfo.isSuccess()).record(elapsed, TimeUnit.NANOSECONDS);
+
+        if (elapsed >= slowThresholdNanos && slowLog.isWarnEnabled()) {
+            String repositoryMethod = RepositoryMetricsInterceptor.current();
+            slowLog.warn("Slow query {} ms{}: {} params={}",
+                    TimeUnit.NANOSECONDS.toMillis(elapsed),
+                    repositoryMethod == null ? "" : " in " + repositoryMethod,
+                    WHITESPACE.matcher(sql).replaceAll(" ").trim(),
+                    parameters(queryInfoList));
+        }
+    }
+
+    private Timer timer(String sql, boolean batch, boolean success) {
+        Timer[] statementTimers = timers.get(sql, key -> new Timer[4]);
+        int index = (batch ? 2 : 0) + (success ? 0 : 1);
+        Timer timer = statementTimers[index];
+        if (timer == null) {
+            // Гонка безопасна: реестр вернёт обоим потокам один и тот же таймер
+            timer = Timer.builder("db.sql")
+                    .description("JDBC statement execution latency")
+                    .tag("statement", normalize(sql))
+                    .tag("batch", Boolean.toString(batch))
+                    .tag("outcome", success ? "success" : "error")
+                    .register(registry);
+            statementTimers[index] = timer;
+        }
+        return timer;
+    }
+
+    static String normalize(String sql) {
+        String normalized = WHITESPACE.matcher(sql).replaceAll(" ").trim();
+        normalized = PARAMETER_LIST.matcher(normalized).replaceAll("(?)");
+        return VALUES_ROWS.matcher(normalized).replaceAll("$1");
+    }
+
+    // Для пакетного выполнения — наборы параметров каждой строки пакета
+    static String parameters(List<QueryInfo> queryInfoList) {
+        return queryInfoList.stream()
+                .flatMap(query -> query.getParametersList().stream())
+                .map(operations -> operations.stream()
+                        .map(SqlMetricsListener::parameterType)
+                        .collect(Collectors.joining(", ", "[", "]")))
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String parameterType(ParameterSetOperation operation) {
+        Object[] args = operation.getArgs();
+        return ParameterSetOperation.isSetNullParameterOperation(operation) || args.length < 2 || args[1] == null
+                ? "null"
+                : args[1].getClass().getSimpleName();
+    }
+}
@@ -1,46 +1,148 @@
 package org.example.projectfinalspring.controllers;
 
-import org.example.projectfinalspring.entities.User;
+import org.example.projectfinalspring.repositories.RefreshTokenUse;
+import org.example.projectfinalspring.repositories.UserCredentials;
 import org.example.projectfinalspring.security.JwtTokenUtil;
+import org.example.projectfinalspring.security.VerifiedToken;
+import org.example.projectfinalspring.services.PasswordHashingService;
+import org.example.projectfinalspring.services.RefreshTokenService;
+import org.example.projectfinalspring.services.TokenRevocationService;
 import org.example.projectfinalspring.services.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
 
     private final UserService userService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtTokenUtil jwtTokenUtil;
+    private final TokenRevocationService revocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final Executor taskExecutor;
 
     public AuthController(UserService userService,
-                          PasswordEncoder passwordEncoder,
-                          JwtTokenUtil jwtTokenUtil) {
+                          PasswordHashingService passwordHashingService,
+                          JwtTokenUtil jwtTokenUtil,
+                          TokenRevocationService revocationService,
+                          RefreshTokenService refreshTokenService,
+                          @Qualifier("applicationTaskExecutor") Executor taskExecutor) {
         this.userService = userService;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.jwtTokenUtil = jwtTokenUtil;
+        this.revocationService = revocationService;
+        this.refreshTokenService = refreshTokenService;
+        this.taskExecutor = taskExecutor;
     }
 
+    // BCrypt считается на отдельном пуле, поток запроса освобождается до ответа.
+    // Выпуск токенов (INSERT refresh-токена и подпись JWT) продолжается на общем пуле задач, а не хеширования
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> createAuthenticationToken(@RequestBody AuthRequest authRequest) {
+    public CompletableFuture<ResponseEntity<AuthResponse>> createAuthenticationToken(@RequestBody AuthRequest authRequest) {
 
-        User user = userService.findByUsername(authRequest.getUsername());
+        UserCredentials user = userService.findCredentialsByUsername(authRequest.getUsername());
 
         if (user == null) {
-            return ResponseEntity.status(401).body(null);
+            return CompletableFuture.completedFuture(ResponseEntity.status(401).body(null));
         }
 
-        if (!passwordEncoder.matches(authRequest.getPassword(), user.getPassword())) {
+        return passwordHashingService.verify(authRequest.getPassword(), user.getPassword())
+                .thenApplyAsync(check -> {
+                    if (!check.isMatches()) {
+                        return ResponseEntity.status(401).body(null);
+                    }
+                    if (check.getUpgradedHash() != null) {
+                        upgradePasswordHash(user, check.getUpgradedHash());
+                    }
+                    String token = jwtTokenUtil.generateToken(user.getId(), user.getUsername(), user.getRole());
+                    return ResponseEntity.ok(new AuthResponse(token, refreshTokenService.issue(user.getId())));
+                }, taskExecutor);
+    }
+
+    /**
+     * Новая пара токенов по refresh-токену: один UPDATE по индексу, без проверки пароля.
+     * Предъявленный refresh-токен гасится; повторное его использование отзывает всю цепочку.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@RequestBody RefreshRequest refreshRequest) {
+        if (refreshRequest.getRefreshToken() == null) {
             return ResponseEntity.status(401).body(null);
         }
+        return refreshTokenService.rotate(refreshRequest.getRefreshToken())
+                .map(rotation -> {
+                    RefreshTokenUse owner = rotation.getOwner();
+                    String token = jwtTokenUtil.generateToken(owner.getUserId(), owner.getUsername(), owner.getRole());
+                    return ResponseEntity.ok(new AuthResponse(token, rotation.getRefreshToken()));
+                })
+                .orElseGet(() -> ResponseEntity.status(401).body(null));
+    }
 
-        String token = jwtTokenUtil.generateToken(user.getUsername());
+    /**
+     * Отзывает токен, с которым пришёл запрос, и цепочку refresh-токенов, если он передан.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@AuthenticationPrincipal VerifiedToken principal,
+                                       @RequestBody(required = false) RefreshRequest refreshRequest) {
+        revoke(principal);
+        if (refreshRequest != null && refreshRequest.getRefreshToken() != null) {
+            refreshTokenService.revoke(refreshRequest.getRefreshToken());
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Отзывает переданный токен. Чужой токен может отозвать только администратор.
+     * Неверный или истёкший токен отзывать не нужно — ответ тот же 204.
+     */
+    @PostMapping("/revoke")
+    public ResponseEntity<Void> revoke(@AuthenticationPrincipal VerifiedToken principal,
+                                       @RequestBody RevokeRequest revokeRequest) {
+        VerifiedToken token = revokeRequest.getToken() == null
+                ? null
+                : jwtTokenUtil.verify(revokeRequest.getToken()).orElse(null);
+        if (token == null) {
+            return ResponseEntity.noContent().build();
+        }
+        if (!principal.isAdmin() && !principal.getUserId().equals(token.getUserId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        revoke(token);
+        return ResponseEntity.noContent().build();
+    }
+
+    // UPDATE с новым хешем выполняется отдельной задачей на общем пуле и не задерживает ответ
+    private void upgradePasswordHash(UserCredentials user, String upgradedHash) {
+        try {
+            taskExecutor.execute(() -> storeUpgradedHash(user, upgradedHash));
+        } catch (RejectedExecutionException e) {
+            log.warn("Failed to schedule rehashed password store for user {}", user.getId(), e);
+        }
+    }
+
+    // Не удалось сохранить новый хеш — вход всё равно успешен, пересчёт повторится при следующем входе
+    private void storeUpgradedHash(UserCredentials user, String upgradedHash) {
+        try {
+            userService.upgradePasswordHash(user.getId(), user.getPassword(), upgradedHash);
+        } catch (RuntimeException e) {
+            log.warn("Failed to store rehashed password for user {}", user.getId(), e);
+        }
+    }
 
-        return ResponseEntity.ok(new AuthResponse(token));
+    private void revoke(VerifiedToken token) {
+        revocationService.revoke(token.getTokenId(), token.getUserId(), token.getExpiresAt());
     }
 }
@@ -2,12 +2,18 @@ package org.example.projectfinalspring.controllers;
 
 public class AuthResponse {
     private final String token;
+    private final String refreshToken;
 
-    public AuthResponse(String token) {
+    public AuthResponse(String token, String refreshToken) {
         this.token = token;
+        this.refreshToken = refreshToken;
     }
 
     public String getToken() {
         return token;
     }
-}
\ No newline at end of file
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+}
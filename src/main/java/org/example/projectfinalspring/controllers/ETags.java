@@ -0,0 +1,67 @@
+package org.example.projectfinalspring.controllers;
+
+import org.example.projectfinalspring.entities.Task;
+import org.example.projectfinalspring.entities.User;
+import org.example.projectfinalspring.repositories.ResourceVersion;
+
+import java.time.LocalDate;
+
+/**
+ * Сильные ETag вида {@code "<вид>-<id>-<версия>[-<версия пользователя>]"}.
+ * Строятся только из версий, поэтому для проверки If-None-Match не нужно загружать сущности.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String user(Long id, Long version) {
+        return quote("user-" + id + "-" + version);
+    }
+
+    static String user(User user) {
+        return user(user.getId(), user.getVersion());
+    }
+
+    static String task(Long id, ResourceVersion version) {
+        return quote("task-" + id + "-" + version.getVersion() + "-" + version.getUserVersion());
+    }
+
+    static String task(Task task) {
+        return quote("task-" + task.getId() + "-" + task.getVersion() + "-" + task.getUser().getVersion());
+    }
+
+    // В ответ встроены данные пользователя, поэтому кроме счётчика изменений задач учитывается и его версия.
+    // Список просроченных меняется и без записей, при смене даты
+    static String taskList(Long userId, ResourceVersion version, boolean overdue) {
+        String value = "tasks-" + userId + "-" + version.getVersion() + "-" + version.getUserVersion();
+        return quote(overdue ? value + "-" + LocalDate.now().toEpochDay() : value);
+    }
+
+    /**
+     * Версия ресурса из заголовка If-Match. null, если заголовка нет или он равен "*";
+     * -1, если ETag не относится к этому ресурсу: такая версия никогда не совпадёт.
+     */
+    static Long expectedVersion(String ifMatch, String kind, Long id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.length() < 2 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            return -1L;
+        }
+        String[] parts = value.substring(1, value.length() - 1).split("-");
+        if (parts.length < 3 || !parts[0].equals(kind) || !parts[1].equals(String.valueOf(id))) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(parts[2]);
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
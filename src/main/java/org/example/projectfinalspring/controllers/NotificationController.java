@@ -0,0 +1,41 @@
+package org.example.projectfinalspring.controllers;
+
+import org.example.projectfinalspring.DTO.NotificationDTO;
+import org.example.projectfinalspring.mappers.DTOMapper;
+import org.example.projectfinalspring.services.NotificationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/users/{user_id}/notifications")
+public class NotificationController {
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final NotificationService notificationService;
+    private final DTOMapper mapper;
+
+    public NotificationController(NotificationService notificationService, DTOMapper mapper) {
+        this.notificationService = notificationService;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Напоминания от новых к старым. Следующая страница — {@code before} = id последнего элемента.
+     */
+    @GetMapping
+    public ResponseEntity<List<NotificationDTO>> getNotifications(
+            @PathVariable Long user_id,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "50") int limit) {
+
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<NotificationDTO> dtos = notificationService.findPage(user_id, before, limit).stream()
+                .map(mapper::toNotificationDTO)
+                .toList();
+        return ResponseEntity.ok(dtos);
+    }
+}
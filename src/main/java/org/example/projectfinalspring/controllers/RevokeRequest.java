@@ -0,0 +1,13 @@
+package org.example.projectfinalspring.controllers;
+
+public class RevokeRequest {
+    private String token;
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.projectfinalspring.controllers;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import org.example.projectfinalspring.DTO.BatchCreateResultDTO;
+import org.example.projectfinalspring.DTO.BatchItemErrorDTO;
+import org.example.projectfinalspring.DTO.CreateTaskDTO;
+import org.example.projectfinalspring.DTO.StatusTransitionResultDTO;
+import org.example.projectfinalspring.DTO.TaskStatusTransitionDTO;
+import org.example.projectfinalspring.entities.Task;
+import org.example.projectfinalspring.entities.TaskStatus;
+import org.example.projectfinalspring.entities.User;
+import org.example.projectfinalspring.repositories.TaskFilter;
+import org.example.projectfinalspring.services.TaskService;
+import org.example.projectfinalspring.services.UserService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/users/{user_id}")
+public class TaskBatchController {
+    private static final int MAX_BATCH_SIZE = 10_000;
+
+    private final TaskService taskService;
+    private final UserService userService;
+    private final Validator validator;
+
+    public TaskBatchController(TaskService taskService, UserService userService, Validator validator) {
+        this.taskService = taskService;
+        this.userService = userService;
+        this.validator = validator;
+    }
+
+    @PostMapping("/tasks:batch")
+    public ResponseEntity<BatchCreateResultDTO> createTasks(
+            @PathVariable Long user_id,
+            @RequestBody List<CreateTaskDTO> createDTOs) {
+
+        if (createDTOs.isEmpty() || createDTOs.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        User user = userService.getUserById(user_id);
+        List<Task> tasks = new ArrayList<>(createDTOs.size());
+        List<BatchItemErrorDTO> errors = new ArrayList<>();
+
+        for (int i = 0; i < createDTOs.size(); i++) {
+            CreateTaskDTO createDTO = createDTOs.get(i);
+            if (createDTO == null) {
+                errors.add(new BatchItemErrorDTO(i, null, "must not be null"));
+                continue;
+            }
+            Set<ConstraintViolation<CreateTaskDTO>> violations = validator.validate(createDTO);
+            if (!violations.isEmpty()) {
+                for (ConstraintViolation<CreateTaskDTO> violation : violations) {
+                    errors.add(new BatchItemErrorDTO(i, violation.getPropertyPath().toString(), violation.getMessage()));
+                }
+                continue;
+            }
+            tasks.add(toTask(createDTO, user));
+        }
+
+        List<Long> ids = tasks.isEmpty() ? List.of() : taskService.createTasks(tasks);
+        HttpStatus status = ids.isEmpty() ? HttpStatus.BAD_REQUEST : HttpStatus.CREATED;
+        return ResponseEntity
+                .status(status)
+                .body(new BatchCreateResultDTO(ids, errors));
+    }
+
+    @PostMapping("/tasks:transition")
+    public ResponseEntity<StatusTransitionResultDTO> transitionStatus(
+            @PathVariable Long user_id,
+            @Valid @RequestBody TaskStatusTransitionDTO transitionDTO,
+            BindingResult bindingResult) {
+
+        if (bindingResult.hasErrors()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        TaskFilter filter = new TaskFilter();
+        filter.setUserId(user_id);
+        if (transitionDTO.getFromStatus() != null) {
+            filter.setStatuses(List.of(TaskStatus.parse(transitionDTO.getFromStatus())));
+        }
+        filter.setDeadlineFrom(transitionDTO.getDeadlineFrom());
+        filter.setDeadlineTo(transitionDTO.getDeadlineTo());
+        filter.setIds(transitionDTO.getIds());
+
+        TaskStatus targetStatus = TaskStatus.parse(transitionDTO.getTargetStatus());
+        if (transitionDTO.isReturnIds()) {
+            List<Long> ids = taskService.transitionStatusReturningIds(filter, targetStatus);
+            return ResponseEntity.ok(new StatusTransitionResultDTO(ids.size(), ids));
+        }
+        int updated = taskService.transitionStatus(filter, targetStatus);
+        return ResponseEntity.ok(new StatusTransitionResultDTO(updated, null));
+    }
+
+    private Task toTask(CreateTaskDTO createDTO, User user) {
+        Task task = new Task();
+        task.setTitle(createDTO.getTitle());
+        task.setDescription(createDTO.getDescription());
+        task.setDeadline(createDTO.getDeadline());
+        task.setStatus(TaskStatus.parse(createDTO.getStatus()));
+        task.setUser(user);
+        return task;
+    }
+}
@@ -2,23 +2,39 @@ package org.example.projectfinalspring.controllers;
 
 import jakarta.validation.Valid;
 import org.example.projectfinalspring.DTO.CreateTaskDTO;
+import org.example.projectfinalspring.DTO.TaskChangesDTO;
 import org.example.projectfinalspring.DTO.TaskDTO;
+import org.example.projectfinalspring.DTO.TaskPageDTO;
+import org.example.projectfinalspring.DTO.TaskStatsDTO;
 import org.example.projectfinalspring.DTO.UpdateTaskDTO;
 import org.example.projectfinalspring.entities.Task;
+import org.example.projectfinalspring.entities.TaskStatus;
 import org.example.projectfinalspring.entities.User;
 import org.example.projectfinalspring.mappers.DTOMapper;
+import org.example.projectfinalspring.repositories.ResourceVersion;
+import org.example.projectfinalspring.repositories.TaskFilter;
+import org.example.projectfinalspring.services.TaskChanges;
+import org.example.projectfinalspring.services.TaskCursor;
 import org.example.projectfinalspring.services.TaskService;
+import org.example.projectfinalspring.services.TaskSyncCursor;
 import org.example.projectfinalspring.services.UserService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/users/{user_id}/tasks")
 public class TaskController {
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final TaskService taskService;
     private final UserService userService;
     private final DTOMapper mapper;
@@ -29,20 +45,104 @@ public class TaskController {
         this.mapper = mapper;
     }
 
+    // Задача ищется вместе с user_id: путь проверен на владельца, но task_id в нём может быть чужим
     @GetMapping("/{task_id}")
-    public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long task_id) {
-        Task task = taskService.getTaskById(task_id)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
-        return ResponseEntity.ok(mapper.toTaskDTO(task));
+    public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long user_id, @PathVariable Long task_id,
+                                               WebRequest request) {
+        Optional<ResourceVersion> version = taskService.getTaskVersion(user_id, task_id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(ETags.task(task_id, version.get()))) {
+            return null;
+        }
+        return taskService.getTaskById(user_id, task_id)
+                .map(task -> ResponseEntity.ok(mapper.toTaskDTO(task)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping
-    public ResponseEntity<List<TaskDTO>> getAllTasksByUser(@PathVariable Long user_id) {
-        List<Task> tasks = taskService.findByUserId(user_id);
-        List<TaskDTO> dtos = tasks.stream()
+    public ResponseEntity<TaskPageDTO> getAllTasksByUser(
+            @PathVariable Long user_id,
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(name = "deadline_from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deadlineFrom,
+            @RequestParam(name = "deadline_to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deadlineTo,
+            @RequestParam(defaultValue = "false") boolean overdue,
+            @RequestParam(name = "include_archived", defaultValue = "false") boolean includeArchived,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        TaskCursor after;
+        List<TaskStatus> statuses;
+        try {
+            after = TaskCursor.decode(cursor);
+            statuses = status == null ? null : status.stream()
+                    .map(TaskStatus::parse)
+                    .toList();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Optional<ResourceVersion> version = taskService.getTaskListVersion(user_id);
+        if (version.isPresent() && request.checkNotModified(ETags.taskList(user_id, version.get(), overdue))) {
+            return null;
+        }
+
+        TaskFilter filter = new TaskFilter();
+        filter.setUserId(user_id);
+        filter.setStatuses(statuses);
+        filter.setDeadlineFrom(deadlineFrom);
+        filter.setDeadlineTo(deadlineTo);
+        filter.setOverdue(overdue);
+        filter.setIncludeArchived(includeArchived);
+
+        // Запрашиваем на одну запись больше, чтобы понять, есть ли следующая страница
+        List<Task> tasks = taskService.findPage(filter, after, limit + 1);
+        return ResponseEntity.ok(toPage(tasks, limit));
+    }
+
+    /**
+     * Лента изменений для синхронизации клиента. {@code since} — значение {@code next} из предыдущего ответа;
+     * без него отдаются все задачи. Если позиция старше срока хранения отметок об удалении, ответ 410
+     * и клиенту нужно загрузить список заново.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<TaskChangesDTO> getTaskChanges(
+            @PathVariable Long user_id,
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "100") int limit) {
+
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        TaskSyncCursor cursor;
+        try {
+            cursor = TaskSyncCursor.decode(since);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (taskService.isSyncCursorExpired(cursor)) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+
+        TaskChanges changes = taskService.findChanges(user_id, cursor, limit);
+        List<TaskDTO> changed = changes.getChanged().stream()
                 .map(mapper::toTaskDTO)
                 .toList();
-        return ResponseEntity.ok(dtos);
+        return ResponseEntity.ok(new TaskChangesDTO(
+                changed, changes.getDeleted(), changes.getNext().encode(), changes.isHasMore()));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<TaskStatsDTO> getTaskStats(@PathVariable Long user_id) {
+        return ResponseEntity.ok(mapper.toTaskStatsDTO(user_id, taskService.getStats(user_id)));
     }
 
     @PostMapping
@@ -60,7 +160,7 @@ public class TaskController {
         task.setTitle(createDTO.getTitle());
         task.setDescription(createDTO.getDescription());
         task.setDeadline(createDTO.getDeadline());
-        task.setStatus(createDTO.getStatus());
+        task.setStatus(TaskStatus.parse(createDTO.getStatus()));
         task.setUser(user);
 
         Task createdTask = taskService.createTask(task);
@@ -71,29 +171,50 @@ public class TaskController {
 
     @PutMapping("/{task_id}")
     public ResponseEntity<TaskDTO> updateTask(
+            @PathVariable Long user_id,
             @PathVariable Long task_id,
             @Valid @RequestBody UpdateTaskDTO updateDTO,
-            BindingResult bindingResult) {
+            BindingResult bindingResult,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         if (bindingResult.hasErrors()) {
             return ResponseEntity.badRequest().build();
         }
 
-        Task task = taskService.getTaskById(task_id)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
-
+        Task task = new Task();
         task.setTitle(updateDTO.getTitle());
         task.setDescription(updateDTO.getDescription());
         task.setDeadline(updateDTO.getDeadline());
-        task.setStatus(updateDTO.getStatus());
-
-        Task updatedTask = taskService.updateTask(task_id, task);
-        return ResponseEntity.ok(mapper.toTaskDTO(updatedTask));
+        task.setStatus(TaskStatus.parse(updateDTO.getStatus()));
+        // Версия из If-Match важнее версии в теле запроса
+        Long expectedVersion = ETags.expectedVersion(ifMatch, "task", task_id);
+        task.setVersion(expectedVersion != null ? expectedVersion : updateDTO.getVersion());
+
+        return taskService.updateTask(user_id, task_id, task)
+                .map(updatedTask -> ResponseEntity.ok()
+                        .eTag(ETags.task(updatedTask))
+                        .body(mapper.toTaskDTO(updatedTask)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{task_id}")
-    public ResponseEntity<Void> deleteTask(@PathVariable Long task_id) {
-        taskService.deleteTask(task_id);
+    public ResponseEntity<Void> deleteTask(
+            @PathVariable Long user_id,
+            @PathVariable Long task_id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (!taskService.deleteTask(user_id, task_id, ETags.expectedVersion(ifMatch, "task", task_id))) {
+            return ResponseEntity.notFound().build();
+        }
         return ResponseEntity.noContent().build();
     }
+
+    private TaskPageDTO toPage(List<Task> tasks, int limit) {
+        boolean hasNext = tasks.size() > limit;
+        List<Task> page = hasNext ? tasks.subList(0, limit) : tasks;
+        String next = hasNext ? TaskCursor.of(page.get(page.size() - 1)).encode() : null;
+        List<TaskDTO> dtos = page.stream()
+                .map(mapper::toTaskDTO)
+                .toList();
+        return new TaskPageDTO(dtos, next);
+    }
 }
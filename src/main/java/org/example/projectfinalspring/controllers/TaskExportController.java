@@ -0,0 +1,66 @@
+package org.example.projectfinalspring.controllers;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.projectfinalspring.DTO.TaskDTO;
+import org.example.projectfinalspring.entities.Task;
+import org.example.projectfinalspring.mappers.DTOMapper;
+import org.example.projectfinalspring.services.TaskService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Выгрузка задач в формате NDJSON: по одному JSON-объекту на строку,
+ * без накопления всей выборки в памяти.
+ */
+@RestController
+@RequestMapping("/api")
+public class TaskExportController {
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final TaskService taskService;
+    private final DTOMapper mapper;
+    private final ObjectWriter writer;
+
+    public TaskExportController(TaskService taskService, DTOMapper mapper, ObjectMapper objectMapper) {
+        this.taskService = taskService;
+        this.mapper = mapper;
+        this.writer = objectMapper.writerFor(TaskDTO.class);
+    }
+
+    @GetMapping(value = "/users/{user_id}/tasks/export", produces = NDJSON)
+    public void exportTasksByUser(@PathVariable Long user_id, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        OutputStream out = new BufferedOutputStream(response.getOutputStream(), 64 * 1024);
+        taskService.exportTasksByUserId(user_id, lineWriter(out));
+        out.flush();
+    }
+
+    @GetMapping(value = "/tasks/export", produces = NDJSON)
+    public void exportAllTasks(HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        OutputStream out = new BufferedOutputStream(response.getOutputStream(), 64 * 1024);
+        taskService.exportAllTasks(lineWriter(out));
+        out.flush();
+    }
+
+    private Consumer<Task> lineWriter(OutputStream out) {
+        return task -> {
+            try {
+                out.write(writer.writeValueAsBytes(mapper.toTaskDTO(task)));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.projectfinalspring.controllers;
+
+import org.example.projectfinalspring.DTO.TaskDTO;
+import org.example.projectfinalspring.DTO.TaskPageDTO;
+import org.example.projectfinalspring.mappers.DTOMapper;
+import org.example.projectfinalspring.repositories.TaskSearchHit;
+import org.example.projectfinalspring.security.VerifiedToken;
+import org.example.projectfinalspring.services.TaskSearchCursor;
+import org.example.projectfinalspring.services.TaskService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/tasks")
+public class TaskSearchController {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    private final TaskService taskService;
+    private final DTOMapper mapper;
+
+    public TaskSearchController(TaskService taskService, DTOMapper mapper) {
+        this.taskService = taskService;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Поиск по задачам. Пользователь ищет только среди своих задач: без user_id берётся id из токена,
+     * чужой user_id даёт 403. Без user_id по всем задачам ищет только администратор.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<TaskPageDTO> search(
+            @AuthenticationPrincipal VerifiedToken principal,
+            @RequestParam String q,
+            @RequestParam(name = "user_id", required = false) Long userId,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cursor) {
+
+        if (q.isBlank() || q.length() > MAX_QUERY_LENGTH || limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!principal.isAdmin()) {
+            if (userId == null) {
+                userId = principal.getUserId();
+            } else if (!userId.equals(principal.getUserId())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+        }
+
+        TaskSearchCursor after;
+        try {
+            after = TaskSearchCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<TaskSearchHit> hits = taskService.search(q, userId, after, limit + 1);
+        boolean hasNext = hits.size() > limit;
+        List<TaskSearchHit> page = hasNext ? hits.subList(0, limit) : hits;
+        String next = hasNext ? TaskSearchCursor.of(page.get(page.size() - 1)).encode() : null;
+        List<TaskDTO> dtos = page.stream()
+                .map(hit -> mapper.toTaskDTO(hit.getTask()))
+                .toList();
+        return ResponseEntity.ok(new TaskPageDTO(dtos, next));
+    }
+}
@@ -4,15 +4,24 @@ import jakarta.validation.Valid;
 import org.example.projectfinalspring.DTO.CreateUserDTO;
 import org.example.projectfinalspring.DTO.UpdateUserDTO;
 import org.example.projectfinalspring.DTO.UserDTO;
+import org.example.projectfinalspring.DTO.UserDeletionJobDTO;
 import org.example.projectfinalspring.entities.User;
 import org.example.projectfinalspring.mappers.DTOMapper;
+import org.example.projectfinalspring.repositories.UserSummary;
+import org.example.projectfinalspring.security.VerifiedToken;
+import org.example.projectfinalspring.services.UserDeletionJob;
 import org.example.projectfinalspring.services.UserService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/users")
@@ -27,14 +36,18 @@ public class UserController {
     }
 
     @GetMapping("/{user_id}")
-    public ResponseEntity<UserDTO> getUserById(@PathVariable Long user_id) {
-        User user = userService.getUserById(user_id);
+    public ResponseEntity<UserDTO> getUserById(@PathVariable Long user_id, WebRequest request) {
+        Optional<Long> version = userService.getUserVersion(user_id);
+        if (version.isPresent() && request.checkNotModified(ETags.user(user_id, version.get()))) {
+            return null;
+        }
+        UserSummary user = userService.getUserSummaryById(user_id);
         return ResponseEntity.ok(mapper.toUserDTO(user));
     }
 
     @GetMapping
     public ResponseEntity<List<UserDTO>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
+        List<UserSummary> users = userService.getAllUserSummaries();
         List<UserDTO> dtos = users.stream()
                 .map(mapper::toUserDTO)
                 .toList();
@@ -66,29 +79,57 @@ public class UserController {
     public ResponseEntity<UserDTO> updateUser(
             @PathVariable Long user_id,
             @Valid @RequestBody UpdateUserDTO updateDTO,
-            BindingResult bindingResult) {
+            BindingResult bindingResult,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         if (bindingResult.hasErrors()) {
             return ResponseEntity.badRequest().build();
         }
 
-        User user = userService.getUserById(user_id);
+        User user = new User();
         user.setUsername(updateDTO.getUsername());
         user.setEmail(updateDTO.getEmail());
+        Long expectedVersion = ETags.expectedVersion(ifMatch, "user", user_id);
+        user.setVersion(expectedVersion != null ? expectedVersion : updateDTO.getVersion());
 
         User updatedUser = userService.updateUser(user_id, user);
-        return ResponseEntity.ok(mapper.toUserDTO(updatedUser));
+        return ResponseEntity.ok()
+                .eTag(ETags.user(updatedUser))
+                .body(mapper.toUserDTO(updatedUser));
     }
 
+    /**
+     * С {@code async=true} удаление выполняется в фоне: ответ 202 со ссылкой на состояние задания.
+     */
     @DeleteMapping("/{user_id}")
-    public ResponseEntity<Void> deleteUser(@PathVariable Long user_id) {
-        userService.deleteUser(user_id);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<UserDeletionJobDTO> deleteUser(
+            @PathVariable Long user_id,
+            @RequestParam(defaultValue = "false") boolean async,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = ETags.expectedVersion(ifMatch, "user", user_id);
+        if (!async) {
+            userService.deleteUser(user_id, expectedVersion);
+            return ResponseEntity.noContent().build();
+        }
+        UserDeletionJob job = userService.startUserDeletion(user_id, expectedVersion);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/users/deletions/" + job.getId()))
+                .body(mapper.toUserDeletionJobDTO(job));
+    }
+
+    // В пути нет user_id, поэтому владельца задания проверяем здесь; чужое задание — как отсутствующее
+    @GetMapping("/deletions/{job_id}")
+    public ResponseEntity<UserDeletionJobDTO> getDeletionJob(@PathVariable String job_id,
+                                                             @AuthenticationPrincipal VerifiedToken principal) {
+        return userService.getDeletionJob(job_id)
+                .filter(job -> principal.isAdmin() || job.getUserId().equals(principal.getUserId()))
+                .map(job -> ResponseEntity.ok(mapper.toUserDeletionJobDTO(job)))
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/username/{username}")
     public ResponseEntity<UserDTO> findByUsername(@PathVariable String username) {
-        User user = userService.findByUsername(username);
+        UserSummary user = userService.findSummaryByUsername(username);
         if (user == null) {
             return ResponseEntity.notFound().build();
         }
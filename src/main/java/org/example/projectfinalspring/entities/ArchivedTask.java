@@ -0,0 +1,106 @@
+package org.example.projectfinalspring.entities;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * Завершённая задача, перенесённая из {@code tasks} фоновой архивацией.
+ * Таблица {@code tasks_archive} секционирована по месяцу дедлайна (см. db/schema.sql); записи только читаются.
+ */
+@Entity
+@Immutable
+@Table(name = "tasks_archive")
+public class ArchivedTask {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 255)
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(nullable = false)
+    private LocalDate deadline;
+
+    @Convert(converter = TaskStatusConverter.class)
+    @Column(nullable = false)
+    private TaskStatus status;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private OffsetDateTime archivedAt;
+
+    public ArchivedTask() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public LocalDate getDeadline() {
+        return deadline;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public OffsetDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ArchivedTask{" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                ", deadline=" + deadline +
+                ", status='" + status + '\'' +
+                ", archivedAt=" + archivedAt +
+                '}';
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.projectfinalspring.entities;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * Напоминание о приближающемся дедлайне. Строки вставляет DeadlineReminderService пачками;
+ * уникальность (task_id, deadline) не даёт напомнить о том же дедлайне дважды.
+ */
+@Entity
+@Immutable
+@Table(name = "notifications",
+        uniqueConstraints = @UniqueConstraint(name = "uk_notifications_task_deadline",
+                columnNames = {"task_id", "deadline"}),
+        indexes = @Index(name = "idx_notifications_user_id", columnList = "user_id, id"))
+public class Notification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    // Задача может быть удалена позже, а напоминание остаётся, поэтому без внешнего ключа
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(nullable = false, length = 255)
+    private String title;
+
+    @Column(nullable = false)
+    private LocalDate deadline;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    public Notification() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public LocalDate getDeadline() {
+        return deadline;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Notification{" +
+                "id=" + id +
+                ", taskId=" + taskId +
+                ", title='" + title + '\'' +
+                ", deadline=" + deadline +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
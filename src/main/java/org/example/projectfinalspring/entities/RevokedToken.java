@@ -0,0 +1,61 @@
+package org.example.projectfinalspring.entities;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Отозванный JWT (по jti). Строка нужна только до истечения срока токена, потом её удаляет
+ * TokenRevocationService. user_id без внешнего ключа: отзыв должен пережить удаление пользователя,
+ * подпись токена при этом остаётся верной.
+ */
+@Entity
+@Immutable
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at")
+})
+public class RevokedToken {
+
+    @Id
+    @Column(name = "jti", length = 36)
+    private String jti;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private OffsetDateTime expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private OffsetDateTime revokedAt;
+
+    public RevokedToken() {
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public OffsetDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public OffsetDateTime getRevokedAt() {
+        return revokedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "RevokedToken{" +
+                "jti='" + jti + '\'' +
+                ", userId=" + userId +
+                ", expiresAt=" + expiresAt +
+                ", revokedAt=" + revokedAt +
+                '}';
+    }
+}
@@ -1,16 +1,28 @@
 package org.example.projectfinalspring.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "tasks")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_user_deadline_id", columnList = "user_id, deadline, id"),
+        @Index(name = "idx_tasks_user_status_deadline_id", columnList = "user_id, status, deadline, id"),
+        @Index(name = "idx_tasks_user_updated_id", columnList = "user_id, updated_at, id")
+})
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 255)
@@ -22,17 +34,31 @@ public class Task {
     @Column(nullable = false)
     private LocalDate deadline;
 
-    @Column(nullable = false, length = 20)
-    private String status;
+    @Convert(converter = TaskStatusConverter.class)
+    @Column(nullable = false)
+    private TaskStatus status;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    // Массовые UPDATE в TaskRepositoryCustomImpl выставляют updated_at сами
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
     public Task() {
     }
 
-    public Task(Long id, String title, String description, LocalDate deadline, String status, User user) {
+    public Task(Long id, String title, String description, LocalDate deadline, TaskStatus status, User user) {
         this.id = id;
         this.title = title;
         this.description = description;
@@ -73,11 +99,11 @@ public class Task {
         this.deadline = deadline;
     }
 
-    public String getStatus() {
+    public TaskStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(TaskStatus status) {
         this.status = status;
     }
 
@@ -89,6 +115,30 @@ public class Task {
         this.user = user;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(OffsetDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(OffsetDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     @Override
     public String toString() {
         return "Task{" +
@@ -0,0 +1,51 @@
+package org.example.projectfinalspring.entities;
+
+import jakarta.persistence.*;
+
+/**
+ * Счётчик изменений задач пользователя. Увеличивается при любой записи в его задачи
+ * и служит основой ETag для списка задач.
+ */
+@Entity
+@Table(name = "task_change_counters")
+public class TaskChangeCounter {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private long version;
+
+    public TaskChangeCounter() {
+    }
+
+    public TaskChangeCounter(Long userId, long version) {
+        this.userId = userId;
+        this.version = version;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskChangeCounter{" +
+                "userId=" + userId +
+                ", version=" + version +
+                '}';
+    }
+}
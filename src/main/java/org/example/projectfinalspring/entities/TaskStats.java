@@ -0,0 +1,59 @@
+package org.example.projectfinalspring.entities;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * Число задач пользователя в одном статусе и сколько из них просрочено.
+ * Строки изменяются только SQL-запросами из TaskRepositoryCustomImpl; архивные задачи тоже учитываются.
+ */
+@Entity
+@Immutable
+@Table(name = "task_stats")
+public class TaskStats {
+
+    @EmbeddedId
+    private TaskStatsId id;
+
+    @MapsId("userId")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @Column(name = "task_count", nullable = false)
+    private long taskCount;
+
+    @Column(name = "overdue_count", nullable = false)
+    private long overdueCount;
+
+    public TaskStats() {
+    }
+
+    public TaskStatsId getId() {
+        return id;
+    }
+
+    public TaskStatus getStatus() {
+        return TaskStatus.fromCode(id.getStatus());
+    }
+
+    public long getTaskCount() {
+        return taskCount;
+    }
+
+    public long getOverdueCount() {
+        return overdueCount;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskStats{" +
+                "id=" + id +
+                ", taskCount=" + taskCount +
+                ", overdueCount=" + overdueCount +
+                '}';
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.projectfinalspring.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Embeddable
+public class TaskStatsId implements Serializable {
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Код TaskStatus: конвертеры к атрибутам идентификатора не применяются
+    @Column(name = "status")
+    private short status;
+
+    public TaskStatsId() {
+    }
+
+    public TaskStatsId(Long userId, short status) {
+        this.userId = userId;
+        this.status = status;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public short getStatus() {
+        return status;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TaskStatsId that)) return false;
+        return status == that.status && Objects.equals(userId, that.userId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, status);
+    }
+
+    @Override
+    public String toString() {
+        return "TaskStatsId{" +
+                "userId=" + userId +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.projectfinalspring.entities;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Статус задачи. В базе хранится как SMALLINT с фиксированным кодом,
+ * поэтому порядок констант можно менять, а коды — нет.
+ */
+public enum TaskStatus {
+    NEW(0),
+    PENDING(1),
+    IN_PROGRESS(2),
+    DONE(3),
+    CANCELLED(4);
+
+    /**
+     * Допустимые значения статуса во входящих DTO (без учёта регистра), включая устаревший COMPLETED.
+     */
+    public static final String PATTERN = "NEW|PENDING|IN_PROGRESS|DONE|COMPLETED|CANCELLED";
+
+    private static final TaskStatus[] BY_CODE = new TaskStatus[5];
+
+    static {
+        for (TaskStatus status : values()) {
+            BY_CODE[status.code] = status;
+        }
+    }
+
+    private static final List<TaskStatus> CLOSED = Arrays.stream(values())
+            .filter(TaskStatus::isClosed)
+            .toList();
+
+    /**
+     * Коды завершённых статусов в виде списка SQL, например {@code (3, 4)}: условие «задача открыта» —
+     * {@code status NOT IN} этот список. Подставляется в запрос константой, а не параметром,
+     * чтобы планировщик мог использовать частичный индекс по открытым задачам.
+     */
+    public static final String CLOSED_CODES_SQL = CLOSED.stream()
+            .map(status -> String.valueOf(status.code))
+            .collect(Collectors.joining(", ", "(", ")"));
+
+    private final short code;
+
+    TaskStatus(int code) {
+        this.code = (short) code;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    /**
+     * Задача завершена или отменена: о ней не напоминают и её не считают просроченной.
+     */
+    public boolean isClosed() {
+        return this == DONE || this == CANCELLED;
+    }
+
+    public static List<TaskStatus> closed() {
+        return CLOSED;
+    }
+
+    public static TaskStatus fromCode(short code) {
+        if (code < 0 || code >= BY_CODE.length || BY_CODE[code] == null) {
+            throw new IllegalArgumentException("Unknown task status code: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    /**
+     * Разбирает статус из запроса. COMPLETED — старое название DONE.
+     */
+    public static TaskStatus parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        String name = value.trim().toUpperCase(Locale.ROOT);
+        if (name.equals("COMPLETED")) {
+            return DONE;
+        }
+        try {
+            return valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown task status: " + value);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.projectfinalspring.entities;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Отметка о том, что задача пропала из списка пользователя: удалена, передана другому или перенесена в архив.
+ * Нужна ленте изменений, иначе клиент не узнает об удалении. Старые отметки удаляет TaskTombstoneCleanupJob.
+ */
+@Entity
+@Immutable
+@Table(name = "task_tombstones", indexes = {
+        @Index(name = "idx_task_tombstones_user_deleted_task", columnList = "user_id, deleted_at, task_id"),
+        @Index(name = "idx_task_tombstones_deleted_at", columnList = "deleted_at")
+})
+public class TaskTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @CreationTimestamp
+    @Column(name = "deleted_at", nullable = false)
+    private OffsetDateTime deletedAt;
+
+    public TaskTombstone() {
+    }
+
+    public TaskTombstone(Long taskId, User user) {
+        this.taskId = taskId;
+        this.user = user;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public OffsetDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskTombstone{" +
+                "id=" + id +
+                ", taskId=" + taskId +
+                ", deletedAt=" + deletedAt +
+                '}';
+    }
+}
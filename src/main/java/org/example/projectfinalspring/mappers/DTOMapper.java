@@ -1,11 +1,23 @@
 package org.example.projectfinalspring.mappers;
 
+import org.example.projectfinalspring.DTO.NotificationDTO;
 import org.example.projectfinalspring.DTO.TaskDTO;
+import org.example.projectfinalspring.DTO.TaskStatsDTO;
 import org.example.projectfinalspring.DTO.UserDTO;
+import org.example.projectfinalspring.DTO.UserDeletionJobDTO;
+import org.example.projectfinalspring.entities.Notification;
 import org.example.projectfinalspring.entities.Task;
+import org.example.projectfinalspring.entities.TaskStats;
+import org.example.projectfinalspring.entities.TaskStatus;
 import org.example.projectfinalspring.entities.User;
+import org.example.projectfinalspring.repositories.UserSummary;
+import org.example.projectfinalspring.services.UserDeletionJob;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Component
 public class DTOMapper {
     public UserDTO toUserDTO(User user) {
@@ -15,6 +27,18 @@ public class DTOMapper {
         dto.setUsername(user.getUsername());
         dto.setEmail(user.getEmail());
         dto.setRole(user.getRole());
+        dto.setVersion(user.getVersion());
+        return dto;
+    }
+
+    public UserDTO toUserDTO(UserSummary user) {
+        if (user == null) return null;
+        UserDTO dto = new UserDTO();
+        dto.setId(user.getId());
+        dto.setUsername(user.getUsername());
+        dto.setEmail(user.getEmail());
+        dto.setRole(user.getRole());
+        dto.setVersion(user.getVersion());
         return dto;
     }
 
@@ -25,8 +49,56 @@ public class DTOMapper {
         dto.setTitle(task.getTitle());
         dto.setDescription(task.getDescription());
         dto.setDeadline(task.getDeadline());
-        dto.setStatus(task.getStatus());
+        dto.setStatus(task.getStatus() == null ? null : task.getStatus().name());
         dto.setUser(toUserDTO(task.getUser()));
+        dto.setVersion(task.getVersion());
+        dto.setCreatedAt(task.getCreatedAt());
+        dto.setUpdatedAt(task.getUpdatedAt());
+        return dto;
+    }
+
+    public NotificationDTO toNotificationDTO(Notification notification) {
+        if (notification == null) return null;
+        NotificationDTO dto = new NotificationDTO();
+        dto.setId(notification.getId());
+        dto.setTaskId(notification.getTaskId());
+        dto.setTitle(notification.getTitle());
+        dto.setDeadline(notification.getDeadline());
+        dto.setCreatedAt(notification.getCreatedAt());
+        return dto;
+    }
+
+    public UserDeletionJobDTO toUserDeletionJobDTO(UserDeletionJob job) {
+        if (job == null) return null;
+        UserDeletionJobDTO dto = new UserDeletionJobDTO();
+        dto.setId(job.getId());
+        dto.setUserId(job.getUserId());
+        dto.setStatus(job.getStatus().name());
+        dto.setDeletedTasks(job.getDeletedTasks());
+        dto.setSubmittedAt(job.getSubmittedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        dto.setError(job.getError());
+        return dto;
+    }
+
+    // Статусы без задач отдаются с нулём, чтобы у клиента всегда был полный набор ключей
+    public TaskStatsDTO toTaskStatsDTO(Long userId, List<TaskStats> stats) {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (TaskStatus status : TaskStatus.values()) {
+            byStatus.put(status.name(), 0L);
+        }
+        long total = 0;
+        long overdue = 0;
+        for (TaskStats row : stats) {
+            byStatus.put(row.getStatus().name(), row.getTaskCount());
+            total += row.getTaskCount();
+            overdue += row.getOverdueCount();
+        }
+        TaskStatsDTO dto = new TaskStatsDTO();
+        dto.setUserId(userId);
+        dto.setByStatus(byStatus);
+        dto.setTotal(total);
+        dto.setOverdue(overdue);
         return dto;
     }
 }
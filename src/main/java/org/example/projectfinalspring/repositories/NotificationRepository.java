@@ -0,0 +1,17 @@
+package org.example.projectfinalspring.repositories;
+
+import org.example.projectfinalspring.entities.Notification;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, Long>, NotificationRepositoryCustom {
+
+    @Query("select n from Notification n where n.user.id = :userId and n.id < :beforeId order by n.id desc")
+    List<Notification> findPage(@Param("userId") Long userId, @Param("beforeId") Long beforeId, Limit limit);
+}
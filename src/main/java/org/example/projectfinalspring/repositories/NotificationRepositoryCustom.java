@@ -0,0 +1,14 @@
+package org.example.projectfinalspring.repositories;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface NotificationRepositoryCustom {
+
+    /**
+     * Создаёт напоминания для задач из {@code taskIds}, которые всё ещё открыты и чей дедлайн
+     * лежит в [{@code from}, {@code dueBy}]. Уже созданные напоминания пропускаются.
+     * Возвращает число вставленных строк.
+     */
+    int insertDeadlineReminders(Collection<Long> taskIds, LocalDate from, LocalDate dueBy);
+}
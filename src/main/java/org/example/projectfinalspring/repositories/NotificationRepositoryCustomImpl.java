@@ -0,0 +1,44 @@
+package org.example.projectfinalspring.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.projectfinalspring.entities.Notification;
+import org.example.projectfinalspring.entities.TaskStatus;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+public class NotificationRepositoryCustomImpl implements NotificationRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int insertDeadlineReminders(Collection<Long> taskIds, LocalDate from, LocalDate dueBy) {
+        if (taskIds.isEmpty()) {
+            return 0;
+        }
+        List<Short> openStatuses = Arrays.stream(TaskStatus.values())
+                .filter(status -> !status.isClosed())
+                .map(TaskStatus::getCode)
+                .toList();
+        // Состояние задачи проверяется здесь, а не при постановке в колесо: задачу могли изменить
+        // на другом узле или массовым переходом статуса
+        return entityManager.createNativeQuery(
+                        "INSERT INTO notifications (user_id, task_id, title, deadline, created_at) " +
+                        "SELECT user_id, id, title, deadline, now() FROM tasks " +
+                        "WHERE id IN (:taskIds) AND status IN (:statuses) AND deadline BETWEEN :from AND :dueBy " +
+                        "ORDER BY id ON CONFLICT (task_id, deadline) DO NOTHING")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Notification.class)
+                .setParameter("taskIds", new TreeSet<>(taskIds))
+                .setParameter("statuses", openStatuses)
+                .setParameter("from", from)
+                .setParameter("dueBy", dueBy)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.projectfinalspring.repositories;
+
+import org.example.projectfinalspring.entities.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long>, RefreshTokenRepositoryCustom {
+
+    @Query("select r.familyId from RefreshToken r where r.tokenHash = :tokenHash")
+    Optional<String> findFamilyByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Query("select r.familyId from RefreshToken r where r.tokenHash = :tokenHash and r.usedAt is not null")
+    Optional<String> findFamilyOfUsedToken(@Param("tokenHash") String tokenHash);
+}
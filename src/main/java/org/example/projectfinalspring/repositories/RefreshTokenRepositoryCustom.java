@@ -0,0 +1,20 @@
+package org.example.projectfinalspring.repositories;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+public interface RefreshTokenRepositoryCustom {
+
+    /**
+     * Помечает неиспользованный и неистёкший токен использованным и возвращает его владельца — одним
+     * UPDATE по уникальному индексу. Из двух одновременных попыток успешна только одна.
+     */
+    Optional<RefreshTokenUse> markUsed(String tokenHash);
+
+    /**
+     * Удаляет все токены цепочки. Возвращает число удалённых строк.
+     */
+    int deleteFamily(String familyId);
+
+    int deleteExpiredBefore(OffsetDateTime threshold, int limit);
+}
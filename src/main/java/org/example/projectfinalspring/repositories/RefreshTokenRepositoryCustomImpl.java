@@ -0,0 +1,55 @@
+package org.example.projectfinalspring.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.projectfinalspring.entities.RefreshToken;
+import org.hibernate.query.NativeQuery;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public class RefreshTokenRepositoryCustomImpl implements RefreshTokenRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<RefreshTokenUse> markUsed(String tokenHash) {
+        // Имя и роль берутся из users в том же запросе: новый access-токен получает актуальную роль
+        List<Object[]> rows = entityManager.createNativeQuery(
+                        "UPDATE refresh_tokens r SET used_at = now() FROM users u " +
+                        "WHERE r.token_hash = :tokenHash AND r.used_at IS NULL AND r.expires_at > now() " +
+                        "AND u.id = r.user_id " +
+                        "RETURNING r.user_id, r.family_id, u.username, u.role")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(RefreshToken.class)
+                .setParameter("tokenHash", tokenHash)
+                .getResultList();
+        return rows.stream()
+                .findFirst()
+                .map(row -> new RefreshTokenUse(((Number) row[0]).longValue(), (String) row[1],
+                        (String) row[2], (String) row[3]));
+    }
+
+    @Override
+    public int deleteFamily(String familyId) {
+        return entityManager.createNativeQuery("DELETE FROM refresh_tokens WHERE family_id = :familyId")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(RefreshToken.class)
+                .setParameter("familyId", familyId)
+                .executeUpdate();
+    }
+
+    @Override
+    public int deleteExpiredBefore(OffsetDateTime threshold, int limit) {
+        return entityManager.createNativeQuery(
+                        "DELETE FROM refresh_tokens WHERE id IN (" +
+                        "SELECT id FROM refresh_tokens WHERE expires_at < :threshold LIMIT :limit)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(RefreshToken.class)
+                .setParameter("threshold", threshold)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+}
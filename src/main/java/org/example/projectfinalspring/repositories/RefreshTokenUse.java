@@ -0,0 +1,44 @@
+package org.example.projectfinalspring.repositories;
+
+/**
+ * Результат погашения refresh-токена: владелец и цепочка, в которой выдаётся следующий токен.
+ */
+public class RefreshTokenUse {
+    private final Long userId;
+    private final String familyId;
+    private final String username;
+    private final String role;
+
+    public RefreshTokenUse(Long userId, String familyId, String username, String role) {
+        this.userId = userId;
+        this.familyId = familyId;
+        this.username = username;
+        this.role = role;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    @Override
+    public String toString() {
+        return "RefreshTokenUse{" +
+                "userId=" + userId +
+                ", familyId='" + familyId + '\'' +
+                ", username='" + username + '\'' +
+                ", role='" + role + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.projectfinalspring.repositories;
+
+/**
+ * Версии, из которых строится ETag: версия самого ресурса и версия пользователя,
+ * чьи данные встроены в ответ.
+ */
+public interface ResourceVersion {
+
+    Long getVersion();
+
+    Long getUserVersion();
+}
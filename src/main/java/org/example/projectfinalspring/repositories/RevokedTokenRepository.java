@@ -0,0 +1,27 @@
+package org.example.projectfinalspring.repositories;
+
+import jakarta.persistence.QueryHint;
+import org.example.projectfinalspring.entities.RevokedToken;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.stream.Stream;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String>, RevokedTokenRepositoryCustom {
+
+    @Query("select count(r) from RevokedToken r where r.expiresAt > :now")
+    long countActive(@Param("now") OffsetDateTime now);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select r.jti from RevokedToken r where r.expiresAt > :now")
+    Stream<String> streamActiveIds(@Param("now") OffsetDateTime now);
+}
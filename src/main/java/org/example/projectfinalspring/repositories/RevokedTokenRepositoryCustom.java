@@ -0,0 +1,16 @@
+package org.example.projectfinalspring.repositories;
+
+import java.time.OffsetDateTime;
+
+public interface RevokedTokenRepositoryCustom {
+
+    /**
+     * Записывает отзыв токена; повторный отзыв того же jti ничего не меняет.
+     */
+    void insertIfAbsent(String jti, Long userId, OffsetDateTime expiresAt);
+
+    /**
+     * Удаляет до {@code limit} записей о токенах, истёкших до {@code threshold}. Возвращает число удалённых строк.
+     */
+    int deleteExpiredBefore(OffsetDateTime threshold, int limit);
+}
@@ -0,0 +1,39 @@
+package org.example.projectfinalspring.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.projectfinalspring.entities.RevokedToken;
+import org.hibernate.query.NativeQuery;
+
+import java.time.OffsetDateTime;
+
+public class RevokedTokenRepositoryCustomImpl implements RevokedTokenRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void insertIfAbsent(String jti, Long userId, OffsetDateTime expiresAt) {
+        entityManager.createNativeQuery(
+                        "INSERT INTO revoked_tokens (jti, user_id, expires_at, revoked_at) " +
+                        "VALUES (:jti, :userId, :expiresAt, now()) ON CONFLICT (jti) DO NOTHING")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(RevokedToken.class)
+                .setParameter("jti", jti)
+                .setParameter("userId", userId)
+                .setParameter("expiresAt", expiresAt)
+                .executeUpdate();
+    }
+
+    @Override
+    public int deleteExpiredBefore(OffsetDateTime threshold, int limit) {
+        return entityManager.createNativeQuery(
+                        "DELETE FROM revoked_tokens WHERE jti IN (" +
+                        "SELECT jti FROM revoked_tokens WHERE expires_at < :threshold LIMIT :limit)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(RevokedToken.class)
+                .setParameter("threshold", threshold)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+}
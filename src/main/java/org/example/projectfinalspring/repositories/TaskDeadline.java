@@ -0,0 +1,13 @@
+package org.example.projectfinalspring.repositories;
+
+import java.time.LocalDate;
+
+/**
+ * Id и дедлайн задачи для загрузки напоминаний.
+ */
+public interface TaskDeadline {
+
+    Long getId();
+
+    LocalDate getDeadline();
+}
@@ -0,0 +1,98 @@
+package org.example.projectfinalspring.repositories;
+
+import org.example.projectfinalspring.entities.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Условия отбора задач для списков и групповых операций. Пустые поля не участвуют в отборе.
+ */
+public class TaskFilter {
+
+    private Long userId;
+
+    private Collection<TaskStatus> statuses;
+
+    private LocalDate deadlineFrom;
+
+    private LocalDate deadlineTo;
+
+    private Collection<Long> ids;
+
+    private boolean overdue;
+
+    private boolean includeArchived;
+
+    public TaskFilter() {
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Collection<TaskStatus> getStatuses() {
+        return statuses;
+    }
+
+    public void setStatuses(Collection<TaskStatus> statuses) {
+        this.statuses = statuses;
+    }
+
+    public LocalDate getDeadlineFrom() {
+        return deadlineFrom;
+    }
+
+    public void setDeadlineFrom(LocalDate deadlineFrom) {
+        this.deadlineFrom = deadlineFrom;
+    }
+
+    public LocalDate getDeadlineTo() {
+        return deadlineTo;
+    }
+
+    public void setDeadlineTo(LocalDate deadlineTo) {
+        this.deadlineTo = deadlineTo;
+    }
+
+    public Collection<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(Collection<Long> ids) {
+        this.ids = ids;
+    }
+
+    public boolean isOverdue() {
+        return overdue;
+    }
+
+    public void setOverdue(boolean overdue) {
+        this.overdue = overdue;
+    }
+
+    public boolean isIncludeArchived() {
+        return includeArchived;
+    }
+
+    public void setIncludeArchived(boolean includeArchived) {
+        this.includeArchived = includeArchived;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskFilter{" +
+                "userId=" + userId +
+                ", statuses=" + statuses +
+                ", deadlineFrom=" + deadlineFrom +
+                ", deadlineTo=" + deadlineTo +
+                ", ids=" + ids +
+                ", overdue=" + overdue +
+                ", includeArchived=" + includeArchived +
+                '}';
+    }
+}
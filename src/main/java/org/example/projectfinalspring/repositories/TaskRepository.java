@@ -1,12 +1,81 @@
 package org.example.projectfinalspring.repositories;
 
+import jakarta.persistence.QueryHint;
 import org.example.projectfinalspring.entities.Task;
+import org.example.projectfinalspring.entities.TaskStats;
+import org.example.projectfinalspring.entities.TaskStatus;
+import org.example.projectfinalspring.entities.TaskTombstone;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
     List<Task> findByUserId(Long userId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = SpecHints.HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS")
+    })
+    @Query("select t from Task t join fetch t.user where t.user.id = :userId")
+    Stream<Task> streamByUserId(@Param("userId") Long userId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = SpecHints.HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS")
+    })
+    @Query("select t from Task t join fetch t.user")
+    Stream<Task> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t.id as id, t.deadline as deadline from Task t " +
+            "where t.deadline >= :from and t.status in :statuses")
+    Stream<TaskDeadline> streamDeadlinesFrom(@Param("from") LocalDate from,
+                                             @Param("statuses") Collection<TaskStatus> statuses);
+
+    Optional<Task> findByIdAndUserId(Long id, Long userId);
+
+    @Query("select t.version as version, u.version as userVersion from Task t join t.user u " +
+            "where t.id = :id and u.id = :userId")
+    Optional<ResourceVersion> findVersionByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Query("select coalesce(c.version, 0) as version, u.version as userVersion from User u " +
+            "left join TaskChangeCounter c on c.userId = u.id where u.id = :userId")
+    Optional<ResourceVersion> findListVersionByUserId(@Param("userId") Long userId);
+
+    @Query("select t from Task t where t.user.id = :userId and t.updatedAt < :upTo " +
+            "and (t.updatedAt, t.id) > (:afterTime, :afterId) order by t.updatedAt, t.id")
+    List<Task> findChangedSince(@Param("userId") Long userId,
+                                @Param("afterTime") OffsetDateTime afterTime,
+                                @Param("afterId") Long afterId,
+                                @Param("upTo") OffsetDateTime upTo,
+                                Limit limit);
+
+    @Query("select d from TaskTombstone d where d.user.id = :userId and d.deletedAt < :upTo " +
+            "and (d.deletedAt, d.taskId) > (:afterTime, :afterId) order by d.deletedAt, d.taskId")
+    List<TaskTombstone> findTombstonesSince(@Param("userId") Long userId,
+                                            @Param("afterTime") OffsetDateTime afterTime,
+                                            @Param("afterId") Long afterId,
+                                            @Param("upTo") OffsetDateTime upTo,
+                                            Limit limit);
+
+    @Query("select s from TaskStats s where s.id.userId = :userId")
+    List<TaskStats> findStatsByUserId(@Param("userId") Long userId);
 }
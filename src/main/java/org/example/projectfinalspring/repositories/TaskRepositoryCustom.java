@@ -0,0 +1,66 @@
+package org.example.projectfinalspring.repositories;
+
+import org.example.projectfinalspring.entities.ArchivedTask;
+import org.example.projectfinalspring.entities.Task;
+import org.example.projectfinalspring.entities.TaskStatus;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface TaskRepositoryCustom {
+
+    List<Task> findPage(TaskFilter filter, LocalDate afterDeadline, Long afterId, int limit);
+
+    List<ArchivedTask> findArchivedPage(TaskFilter filter, LocalDate afterDeadline, Long afterId, int limit);
+
+    /**
+     * Переводит подходящие под фильтр задачи в targetStatus и возвращает id и дедлайны изменённых задач.
+     */
+    List<TaskDeadline> updateStatusReturningDeadlines(TaskFilter filter, TaskStatus targetStatus);
+
+    List<TaskSearchHit> search(String query, Long userId, Float afterRank, Long afterId, int limit);
+
+    void incrementChangeCounters(Collection<Long> userIds);
+
+    /**
+     * Создаёт недостающие месячные секции tasks_archive для задач, которые будут перенесены.
+     */
+    void createArchivePartitions(LocalDate cutoff);
+
+    /**
+     * Переносит в архив до {@code limit} завершённых задач с дедлайном раньше {@code cutoff}.
+     * Возвращает id перенесённых задач.
+     */
+    List<Long> archiveDone(LocalDate cutoff, int limit);
+
+    /**
+     * Прибавляет накопленные изменения к строкам task_stats.
+     */
+    void applyStatsDelta(TaskStatsDelta delta);
+
+    /**
+     * Пересчитывает task_stats указанных пользователей по живой и архивной таблицам.
+     * Возвращает число исправленных строк.
+     */
+    int reconcileStats(Collection<Long> userIds);
+
+    /**
+     * Удаляет до {@code limit} отметок об удалении старше {@code threshold}. Возвращает число удалённых.
+     */
+    int deleteTombstonesBefore(OffsetDateTime threshold, int limit);
+
+    /**
+     * Удаляет до {@code limit} задач пользователя одним запросом, без загрузки сущностей.
+     * Возвращает id удалённых задач.
+     */
+    List<Long> deleteByUserId(Long userId, int limit);
+
+    /**
+     * Удаляет до {@code limit} архивных задач пользователя. Возвращает число удалённых.
+     */
+    int deleteArchivedByUserId(Long userId, int limit);
+
+    void deleteChangeCounter(Long userId);
+}
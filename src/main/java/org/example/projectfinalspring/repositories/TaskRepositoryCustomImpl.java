@@ -0,0 +1,452 @@
+package org.example.projectfinalspring.repositories;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.example.projectfinalspring.entities.ArchivedTask;
+import org.example.projectfinalspring.entities.Task;
+import org.example.projectfinalspring.entities.TaskChangeCounter;
+import org.example.projectfinalspring.entities.TaskStats;
+import org.example.projectfinalspring.entities.TaskTombstone;
+import org.example.projectfinalspring.entities.TaskStatus;
+import org.hibernate.jpa.SpecHints;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+    // Литералы перечисления, а не параметр: Hibernate подставит коды в SQL, и частичный индекс
+    // idx_tasks_user_open_deadline_id подойдёт и для подготовленного запроса
+    private static final String CLOSED_STATUSES_JPQL = TaskStatus.closed().stream()
+            .map(status -> TaskStatus.class.getName() + "." + status.name())
+            .collect(Collectors.joining(", ", "(", ")"));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${tasks.search.timeout-ms:2000}")
+    private int searchTimeoutMs;
+
+    @Override
+    public List<Task> findPage(TaskFilter filter, LocalDate afterDeadline, Long afterId, int limit) {
+        return page(Task.class, filter, afterDeadline, afterId, limit);
+    }
+
+    @Override
+    public List<ArchivedTask> findArchivedPage(TaskFilter filter, LocalDate afterDeadline, Long afterId, int limit) {
+        return page(ArchivedTask.class, filter, afterDeadline, afterId, limit);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void createArchivePartitions(LocalDate cutoff) {
+        List<LocalDate> months = entityManager.createNativeQuery(
+                        "SELECT DISTINCT CAST(date_trunc('month', deadline) AS date) FROM tasks " +
+                        "WHERE status = :doneStatus AND deadline < :cutoff", LocalDate.class)
+                .setParameter("doneStatus", TaskStatus.DONE.getCode())
+                .setParameter("cutoff", cutoff)
+                .getResultList();
+        for (LocalDate month : months) {
+            // Имя и границы секции строятся из дат, а не из пользовательского ввода
+            String ddl = String.format(
+                    "CREATE TABLE IF NOT EXISTS tasks_archive_%d_%02d PARTITION OF tasks_archive " +
+                    "FOR VALUES FROM ('%s') TO ('%s')",
+                    month.getYear(), month.getMonthValue(), month, month.plusMonths(1));
+            entityManager.createNativeQuery(ddl)
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedEntityClass(ArchivedTask.class)
+                    .executeUpdate();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> archiveDone(LocalDate cutoff, int limit) {
+        // Перенос одной пачки одним запросом: удаление из tasks, вставка в архив, отметки для ленты изменений
+        // и счётчики изменений.
+        // SKIP LOCKED позволяет нескольким экземплярам приложения архивировать параллельно, не мешая друг другу
+        List<Number> rows = entityManager.createNativeQuery(
+                        "WITH moved AS (" +
+                        "DELETE FROM tasks WHERE id IN (" +
+                        "SELECT id FROM tasks WHERE status = :doneStatus AND deadline < :cutoff " +
+                        "ORDER BY deadline, id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+                        "RETURNING id, title, description, deadline, status, user_id, version, created_at, updated_at), " +
+                        "archived AS (" +
+                        "INSERT INTO tasks_archive (id, title, description, deadline, status, user_id, version, " +
+                        "created_at, updated_at, archived_at) " +
+                        "SELECT id, title, description, deadline, status, user_id, version, created_at, updated_at, now() " +
+                        "FROM moved), tombstones AS (" +
+                        "INSERT INTO task_tombstones (task_id, user_id, deleted_at) " +
+                        "SELECT id, user_id, now() FROM moved), counters AS (" +
+                        "INSERT INTO task_change_counters (user_id, version) " +
+                        "SELECT DISTINCT user_id, 1 FROM moved ORDER BY user_id " +
+                        "ON CONFLICT (user_id) DO UPDATE SET version = task_change_counters.version + 1) " +
+                        "SELECT id FROM moved")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Task.class)
+                .addSynchronizedEntityClass(ArchivedTask.class)
+                .addSynchronizedEntityClass(TaskTombstone.class)
+                .addSynchronizedEntityClass(TaskChangeCounter.class)
+                .setParameter("doneStatus", TaskStatus.DONE.getCode())
+                .setParameter("cutoff", cutoff)
+                .setParameter("limit", limit)
+                .getResultList();
+        List<Long> ids = rows.stream()
+                .map(Number::longValue)
+                .toList();
+        evictFromSecondLevelCache(cache -> ids.forEach(id -> cache.evict(Task.class, id)));
+        return ids;
+    }
+
+    // Архивные задачи имеют те же поля, что и живые, поэтому отбор и keyset-пагинация общие
+    private <T> List<T> page(Class<T> type, TaskFilter filter, LocalDate afterDeadline, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder("select t from " + type.getSimpleName() + " t where 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+        if (filter.getUserId() != null) {
+            jpql.append(" and t.user.id = :userId");
+            params.put("userId", filter.getUserId());
+        }
+        if (filter.getStatuses() != null && !filter.getStatuses().isEmpty()) {
+            jpql.append(" and t.status in :statuses");
+            params.put("statuses", filter.getStatuses());
+        }
+        if (filter.getDeadlineFrom() != null) {
+            jpql.append(" and t.deadline >= :deadlineFrom");
+            params.put("deadlineFrom", filter.getDeadlineFrom());
+        }
+        if (filter.getDeadlineTo() != null) {
+            jpql.append(" and t.deadline <= :deadlineTo");
+            params.put("deadlineTo", filter.getDeadlineTo());
+        }
+        if (filter.getIds() != null && !filter.getIds().isEmpty()) {
+            jpql.append(" and t.id in :ids");
+            params.put("ids", filter.getIds());
+        }
+        if (filter.isOverdue()) {
+            jpql.append(" and t.deadline < current_date and t.status not in ").append(CLOSED_STATUSES_JPQL);
+        }
+        if (afterDeadline != null) {
+            jpql.append(" and (t.deadline, t.id) > (:afterDeadline, :afterId)");
+            params.put("afterDeadline", afterDeadline);
+            params.put("afterId", afterId);
+        }
+        jpql.append(" order by t.deadline, t.id");
+
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), type);
+        params.forEach(query::setParameter);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<TaskDeadline> updateStatusReturningDeadlines(TaskFilter filter, TaskStatus targetStatus) {
+        List<Object[]> rows = statusUpdate(filter, targetStatus).getResultList();
+        List<TaskDeadline> changed = rows.stream()
+                .map(row -> (TaskDeadline) new ChangedTask((Long) row[0], (LocalDate) row[1]))
+                .toList();
+        evictFromSecondLevelCache(cache -> changed.forEach(task -> cache.evict(Task.class, task.getId())));
+        return changed;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<TaskSearchHit> search(String query, Long userId, Float afterRank, Long afterId, int limit) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT {t.*}, ts_rank(t.search_vector, q.query) AS rank " +
+                "FROM tasks t, websearch_to_tsquery('simple', :query) AS q(query) " +
+                "WHERE t.search_vector @@ q.query");
+        if (userId != null) {
+            sql.append(" AND t.user_id = :userId");
+        }
+        if (afterRank != null) {
+            sql.append(" AND (ts_rank(t.search_vector, q.query), t.id) < (CAST(:afterRank AS real), :afterId)");
+        }
+        sql.append(" ORDER BY rank DESC, t.id DESC LIMIT :limit");
+
+        NativeQuery<Object[]> nativeQuery = entityManager.createNativeQuery(sql.toString())
+                .unwrap(NativeQuery.class)
+                .addEntity("t", Task.class)
+                .addScalar("rank", StandardBasicTypes.FLOAT);
+        nativeQuery.setParameter("query", query);
+        if (userId != null) {
+            nativeQuery.setParameter("userId", userId);
+        }
+        if (afterRank != null) {
+            nativeQuery.setParameter("afterRank", afterRank);
+            nativeQuery.setParameter("afterId", afterId);
+        }
+        nativeQuery.setParameter("limit", limit);
+        // Ограничение по времени: запрос с очень частым словом не должен занимать соединение надолго
+        nativeQuery.setHint(SpecHints.HINT_SPEC_QUERY_TIMEOUT, searchTimeoutMs);
+
+        return nativeQuery.getResultList().stream()
+                .map(row -> new TaskSearchHit((Task) row[0], (Float) row[1]))
+                .toList();
+    }
+
+    @Override
+    public void incrementChangeCounters(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        // Строки счётчиков блокируем в порядке id, чтобы параллельные транзакции не ловили deadlock
+        Query query = entityManager.createNativeQuery(
+                        "INSERT INTO task_change_counters (user_id, version) " +
+                        "SELECT u.id, 1 FROM users u WHERE u.id IN (:userIds) ORDER BY u.id " +
+                        "ON CONFLICT (user_id) DO UPDATE SET version = task_change_counters.version + 1")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(TaskChangeCounter.class);
+        query.setParameter("userIds", new TreeSet<>(userIds));
+        query.executeUpdate();
+    }
+
+    @Override
+    public void applyStatsDelta(TaskStatsDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        StringBuilder values = new StringBuilder();
+        Map<String, Object> params = new HashMap<>();
+        delta.forEach((userId, status, taskDelta, overdueDelta) -> {
+            int i = params.size() / 4;
+            values.append(i == 0 ? "" : ", ")
+                    .append("(CAST(:u").append(i).append(" AS bigint), CAST(:s").append(i).append(" AS smallint), ")
+                    .append("CAST(:t").append(i).append(" AS bigint), CAST(:o").append(i).append(" AS bigint))");
+            params.put("u" + i, userId);
+            params.put("s" + i, status);
+            params.put("t" + i, taskDelta);
+            params.put("o" + i, overdueDelta);
+        });
+        // Вклад в overdue_count считается по сегодняшней дате, а задача, просрочившаяся после сверки,
+        // в счётчике ещё не учтена: её удаление не должно увести его ниже нуля, недосчёт поправит сверка
+        Query query = entityManager.createNativeQuery(
+                        "INSERT INTO task_stats (user_id, status, task_count, overdue_count) VALUES " + values + " " +
+                        "ON CONFLICT (user_id, status) DO UPDATE SET " +
+                        "task_count = task_stats.task_count + EXCLUDED.task_count, " +
+                        "overdue_count = GREATEST(task_stats.overdue_count + EXCLUDED.overdue_count, 0)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(TaskStats.class);
+        params.forEach(query::setParameter);
+        query.executeUpdate();
+    }
+
+    @Override
+    public int reconcileStats(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>(new TreeSet<>(userIds));
+        // Сначала блокируем существующие строки статистики: записи, успевшие их изменить, уже зафиксированы
+        // и попадут в пересчёт, а новые дождутся его окончания и применят своё изменение поверх
+        entityManager.createNativeQuery(
+                        "SELECT 1 FROM task_stats WHERE user_id IN (:userIds) ORDER BY user_id, status FOR UPDATE")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(TaskStats.class)
+                .setParameter("userIds", ids)
+                .getResultList();
+        Number fixed = (Number) entityManager.createNativeQuery(
+                        "WITH actual AS (" +
+                        "SELECT user_id, status, count(*) AS task_count, " +
+                        "count(*) FILTER (WHERE deadline < CURRENT_DATE AND status NOT IN " + TaskStatus.CLOSED_CODES_SQL + ") " +
+                        "AS overdue_count " +
+                        "FROM (SELECT user_id, status, deadline FROM tasks WHERE user_id IN (:userIds) " +
+                        "UNION ALL SELECT user_id, status, deadline FROM tasks_archive WHERE user_id IN (:userIds)) t " +
+                        "GROUP BY user_id, status), updated AS (" +
+                        "INSERT INTO task_stats (user_id, status, task_count, overdue_count) " +
+                        "SELECT user_id, status, task_count, overdue_count FROM actual ORDER BY user_id, status " +
+                        "ON CONFLICT (user_id, status) DO UPDATE SET " +
+                        "task_count = EXCLUDED.task_count, overdue_count = EXCLUDED.overdue_count " +
+                        "WHERE task_stats.task_count <> EXCLUDED.task_count " +
+                        "OR task_stats.overdue_count <> EXCLUDED.overdue_count RETURNING 1), zeroed AS (" +
+                        "UPDATE task_stats s SET task_count = 0, overdue_count = 0 " +
+                        "WHERE s.user_id IN (:userIds) AND (s.task_count <> 0 OR s.overdue_count <> 0) " +
+                        "AND NOT EXISTS (SELECT 1 FROM actual a WHERE a.user_id = s.user_id AND a.status = s.status) " +
+                        "RETURNING 1) " +
+                        "SELECT (SELECT count(*) FROM updated) + (SELECT count(*) FROM zeroed)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(TaskStats.class)
+                .addSynchronizedEntityClass(Task.class)
+                .addSynchronizedEntityClass(ArchivedTask.class)
+                .setParameter("userIds", ids)
+                .getSingleResult();
+        return fixed.intValue();
+    }
+
+    @Override
+    public int deleteTombstonesBefore(OffsetDateTime threshold, int limit) {
+        return entityManager.createNativeQuery(
+                        "DELETE FROM task_tombstones WHERE id IN (" +
+                        "SELECT id FROM task_tombstones WHERE deleted_at < :threshold LIMIT :limit)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(TaskTombstone.class)
+                .setParameter("threshold", threshold)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+
+    @Override
+    public List<Long> deleteByUserId(Long userId, int limit) {
+        List<Number> rows = entityManager.createNativeQuery(
+                        "DELETE FROM tasks WHERE id IN (" +
+                        "SELECT id FROM tasks WHERE user_id = :userId ORDER BY id LIMIT :limit FOR UPDATE) " +
+                        "RETURNING id")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Task.class)
+                .setParameter("userId", userId)
+                .setParameter("limit", limit)
+                .getResultList();
+        List<Long> ids = rows.stream()
+                .map(Number::longValue)
+                .toList();
+        evictFromSecondLevelCache(cache -> ids.forEach(id -> cache.evict(Task.class, id)));
+        return ids;
+    }
+
+    @Override
+    public int deleteArchivedByUserId(Long userId, int limit) {
+        // Ключ архива составной: (id, deadline)
+        return entityManager.createNativeQuery(
+                        "DELETE FROM tasks_archive WHERE (id, deadline) IN (" +
+                        "SELECT id, deadline FROM tasks_archive WHERE user_id = :userId LIMIT :limit)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(ArchivedTask.class)
+                .setParameter("userId", userId)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+
+    @Override
+    public void deleteChangeCounter(Long userId) {
+        entityManager.createNativeQuery("DELETE FROM task_change_counters WHERE user_id = :userId")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(TaskChangeCounter.class)
+                .setParameter("userId", userId)
+                .executeUpdate();
+    }
+
+    // Один UPDATE на все подходящие строки; задачи, уже находящиеся в целевом статусе, не трогаем.
+    // В том же запросе увеличиваются версии задач, счётчики изменений и статистика затронутых пользователей.
+    // Прежний статус нужен для статистики, а UPDATE ... RETURNING видит только новые значения,
+    // поэтому строки сначала выбираются (и блокируются) в old
+    private Query statusUpdate(TaskFilter filter, TaskStatus targetStatus) {
+        StringBuilder sql = new StringBuilder(
+                "WITH old AS (SELECT id, status FROM tasks WHERE status <> :targetStatus");
+        Map<String, Object> params = new HashMap<>();
+        params.put("targetStatus", targetStatus.getCode());
+        appendFilter(sql, params, filter);
+        sql.append(" ORDER BY id FOR UPDATE), changed AS (" +
+                "UPDATE tasks t SET status = :targetStatus, version = t.version + 1, updated_at = now() " +
+                "FROM old WHERE t.id = old.id " +
+                "RETURNING t.id, t.user_id, t.deadline, old.status AS old_status), counters AS (" +
+                "INSERT INTO task_change_counters (user_id, version) " +
+                "SELECT DISTINCT user_id, 1 FROM changed ORDER BY user_id " +
+                "ON CONFLICT (user_id) DO UPDATE SET version = task_change_counters.version + 1), stats AS (" +
+                "INSERT INTO task_stats (user_id, status, task_count, overdue_count) " +
+                "SELECT user_id, status, sum(task_delta), sum(overdue_delta) FROM (" +
+                "SELECT user_id, old_status AS status, -1 AS task_delta, " +
+                "CASE WHEN deadline < CURRENT_DATE AND old_status NOT IN " + TaskStatus.CLOSED_CODES_SQL + " " +
+                "THEN -1 ELSE 0 END AS overdue_delta " +
+                "FROM changed UNION ALL " +
+                "SELECT user_id, CAST(:targetStatus AS smallint), 1, " +
+                "CASE WHEN deadline < CURRENT_DATE AND CAST(:targetStatus AS smallint) NOT IN " + TaskStatus.CLOSED_CODES_SQL + " " +
+                "THEN 1 ELSE 0 END " +
+                "FROM changed) d GROUP BY user_id, status ORDER BY user_id, status " +
+                "ON CONFLICT (user_id, status) DO UPDATE SET " +
+                "task_count = task_stats.task_count + EXCLUDED.task_count, " +
+                "overdue_count = task_stats.overdue_count + EXCLUDED.overdue_count) ");
+        // Дедлайн нужен, чтобы поставить или снять напоминания об изменённых задачах
+        sql.append("SELECT id, deadline FROM changed");
+
+        // Запрос выполняется как выборка, поэтому таблицы указываем явно: иначе Hibernate не сделает
+        // перед ним flush изменённых задач
+        Query query = entityManager.createNativeQuery(sql.toString())
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Task.class)
+                .addSynchronizedEntityClass(TaskChangeCounter.class)
+                .addSynchronizedEntityClass(TaskStats.class)
+                .addScalar("id", StandardBasicTypes.LONG)
+                .addScalar("deadline", StandardBasicTypes.LOCAL_DATE);
+        params.forEach(query::setParameter);
+        return query;
+    }
+
+    // UPDATE внутри выборки Hibernate не отслеживает, поэтому изменённые задачи убираем из кэша сами:
+    // сразу и ещё раз после завершения транзакции, чтобы не осталось значения, прочитанного до фиксации
+    private void evictFromSecondLevelCache(Consumer<Cache> eviction) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        eviction.accept(cache);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.accept(cache);
+                }
+            });
+        }
+    }
+
+    private void appendFilter(StringBuilder sql, Map<String, Object> params, TaskFilter filter) {
+        if (filter.getUserId() != null) {
+            sql.append(" AND user_id = :userId");
+            params.put("userId", filter.getUserId());
+        }
+        if (filter.getStatuses() != null && !filter.getStatuses().isEmpty()) {
+            // В native-запросах статус сравнивается по коду, как он лежит в колонке
+            sql.append(" AND status IN (:statuses)");
+            params.put("statuses", filter.getStatuses().stream()
+                    .map(TaskStatus::getCode)
+                    .toList());
+        }
+        if (filter.getDeadlineFrom() != null) {
+            sql.append(" AND deadline >= :deadlineFrom");
+            params.put("deadlineFrom", filter.getDeadlineFrom());
+        }
+        if (filter.getDeadlineTo() != null) {
+            sql.append(" AND deadline <= :deadlineTo");
+            params.put("deadlineTo", filter.getDeadlineTo());
+        }
+        if (filter.getIds() != null && !filter.getIds().isEmpty()) {
+            sql.append(" AND id IN (:ids)");
+            params.put("ids", filter.getIds());
+        }
+        if (filter.isOverdue()) {
+            sql.append(" AND deadline < CURRENT_DATE AND status NOT IN ").append(TaskStatus.CLOSED_CODES_SQL);
+        }
+    }
+
+    private static final class ChangedTask implements TaskDeadline {
+        private final Long id;
+        private final LocalDate deadline;
+
+        private ChangedTask(Long id, LocalDate deadline) {
+            this.id = id;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public LocalDate getDeadline() {
+            return deadline;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.projectfinalspring.repositories;
+
+import org.example.projectfinalspring.entities.Task;
+
+public class TaskSearchHit {
+
+    private final Task task;
+
+    private final float rank;
+
+    public TaskSearchHit(Task task, float rank) {
+        this.task = task;
+        this.rank = rank;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public float getRank() {
+        return rank;
+    }
+}
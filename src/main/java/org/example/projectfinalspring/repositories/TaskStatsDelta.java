@@ -0,0 +1,58 @@
+package org.example.projectfinalspring.repositories;
+
+import org.example.projectfinalspring.entities.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Изменения task_stats, накопленные за одну операцию над задачами.
+ * Ключи упорядочены по (пользователь, статус), чтобы строки статистики всегда блокировались в одном порядке.
+ */
+public class TaskStatsDelta {
+
+    private final LocalDate today = LocalDate.now();
+    private final Map<Key, long[]> deltas = new TreeMap<>(
+            Comparator.comparing(Key::userId).thenComparing(Key::status));
+
+    public void add(Long userId, TaskStatus status, LocalDate deadline) {
+        apply(userId, status, deadline, 1);
+    }
+
+    public void remove(Long userId, TaskStatus status, LocalDate deadline) {
+        apply(userId, status, deadline, -1);
+    }
+
+    public boolean isEmpty() {
+        return deltas.values().stream().allMatch(d -> d[0] == 0 && d[1] == 0);
+    }
+
+    /**
+     * Обходит ненулевые изменения: пользователь, код статуса, изменение числа задач и числа просроченных.
+     */
+    public void forEach(Visitor visitor) {
+        deltas.forEach((key, d) -> {
+            if (d[0] != 0 || d[1] != 0) {
+                visitor.visit(key.userId(), key.status(), d[0], d[1]);
+            }
+        });
+    }
+
+    private void apply(Long userId, TaskStatus status, LocalDate deadline, int sign) {
+        long[] d = deltas.computeIfAbsent(new Key(userId, status.getCode()), k -> new long[2]);
+        d[0] += sign;
+        if (deadline != null && deadline.isBefore(today) && !status.isClosed()) {
+            d[1] += sign;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(Long userId, short status, long taskDelta, long overdueDelta);
+    }
+
+    private record Key(Long userId, short status) {
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.projectfinalspring.repositories;
+
+/**
+ * Проекция со всеми полями, нужными при поиске по имени: и для входа, и для выдачи профиля.
+ */
+public interface UserAccount extends UserSummary, UserCredentials {
+}
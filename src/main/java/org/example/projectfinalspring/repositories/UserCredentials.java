@@ -0,0 +1,15 @@
+package org.example.projectfinalspring.repositories;
+
+/**
+ * Проекция для проверки пароля при входе.
+ */
+public interface UserCredentials {
+
+    Long getId();
+
+    String getUsername();
+
+    String getPassword();
+
+    String getRole();
+}
@@ -1,10 +1,45 @@
 package org.example.projectfinalspring.repositories;
 
+import jakarta.persistence.QueryHint;
 import org.example.projectfinalspring.entities.User;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     User findByUsername(String username);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<UserSummary> findAllProjectedBy();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<UserSummary> findSummaryById(Long id);
+
+    Optional<UserSummary> findSummaryByUsername(String username);
+
+    Optional<UserCredentials> findCredentialsByUsername(String username);
+
+    // Читается с основной базы: сразу после регистрации реплика может ещё не знать пользователя,
+    // а промах попал бы в кэш имён
+    @Transactional
+    Optional<UserAccount> findAccountByUsername(String username);
+
+    @EntityGraph(attributePaths = "tasks")
+    Optional<User> findWithTasksById(Long id);
+
+    @Query("select u.version from User u where u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("select u.id from User u where u.id > :afterId order by u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
 }
@@ -0,0 +1,17 @@
+package org.example.projectfinalspring.repositories;
+
+/**
+ * Проекция пользователя без пароля и задач: выбирает только нужные колонки.
+ */
+public interface UserSummary {
+
+    Long getId();
+
+    String getUsername();
+
+    String getEmail();
+
+    String getRole();
+
+    Long getVersion();
+}
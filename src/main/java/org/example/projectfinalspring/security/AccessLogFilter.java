@@ -0,0 +1,73 @@
+package org.example.projectfinalspring.security;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.projectfinalspring.config.SqlMetricsListener;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Журнал доступа: метод, путь, пользователь, статус, время ответа и время SQL. Запись кладётся
+ * в кольцевой буфер AccessLogWriter, в файл её пишет фоновый поток. Стоит первым в цепочке безопасности,
+ * поэтому учитывает и ответы 401/403. Пользователя сюда передаёт JwtRequestFilter через атрибут запроса:
+ * контекст безопасности к концу цепочки уже очищен.
+ */
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    public static final String USER_ATTRIBUTE = AccessLogFilter.class.getName() + ".user";
+
+    private final AccessLogRingBuffer buffer;
+
+    public AccessLogFilter(AccessLogRingBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long timestamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+        SqlMetricsListener.resetDbTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long dbNanos = SqlMetricsListener.dbTimeNanos();
+            if (request.isAsyncStarted()) {
+                // Асинхронный ответ (вход через CompletableFuture): завершается в другом потоке,
+                // время SQL учтено только для потока запроса
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(request, response, timestamp, start, dbNanos);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(request, response, timestamp, start, dbNanos);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response,
+                        long timestamp, long start, long dbNanos) {
+        buffer.offer(timestamp, request.getMethod(), request.getRequestURI(),
+                (String) request.getAttribute(USER_ATTRIBUTE), response.getStatus(),
+                System.nanoTime() - start, dbNanos);
+    }
+}
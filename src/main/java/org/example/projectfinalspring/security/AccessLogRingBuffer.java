@@ -0,0 +1,122 @@
+package org.example.projectfinalspring.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Кольцевой буфер записей журнала доступа: много писателей (потоки запросов), один читатель (AccessLogWriter).
+ * Поля записей лежат в заранее выделенных массивах, запись занимает ячейку через CAS без блокировок.
+ * Если буфер заполнен, запись отбрасывается и учитывается в счётчике — поток запроса никогда не ждёт.
+ */
+public class AccessLogRingBuffer {
+
+    public interface Sink {
+        void accept(long timestamp, String method, String path, String user,
+                    int status, long latencyNanos, long dbNanos);
+    }
+
+    private final int mask;
+    // Номер позиции, для которой ячейка готова: pos — свободна для записи, pos + 1 — заполнена
+    private final AtomicLongArray sequences;
+    private final long[] timestamps;
+    private final String[] methods;
+    private final String[] paths;
+    private final String[] users;
+    private final int[] statuses;
+    private final long[] latencies;
+    private final long[] dbTimes;
+
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    // Меняет только читатель
+    private volatile long head;
+
+    public AccessLogRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.timestamps = new long[capacity];
+        this.methods = new String[capacity];
+        this.paths = new String[capacity];
+        this.users = new String[capacity];
+        this.statuses = new int[capacity];
+        this.latencies = new long[capacity];
+        this.dbTimes = new long[capacity];
+    }
+
+    /**
+     * Кладёт запись в буфер. Возвращает false, если буфер заполнен и запись отброшена.
+     */
+    public boolean offer(long timestamp, String method, String path, String user,
+                         int status, long latencyNanos, long dbNanos) {
+        long pos = tail.get();
+        int index;
+        while (true) {
+            index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    break;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                dropped.increment();
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+        timestamps[index] = timestamp;
+        methods[index] = method;
+        paths[index] = path;
+        users[index] = user;
+        statuses[index] = status;
+        latencies[index] = latencyNanos;
+        dbTimes[index] = dbNanos;
+        // Публикует поля записи читателю
+        sequences.lazySet(index, pos + 1);
+        return true;
+    }
+
+    /**
+     * Передаёт в sink до max записей по порядку и освобождает их ячейки. Вызывается только из одного потока.
+     */
+    public int drain(Sink sink, int max) {
+        long pos = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (pos & mask);
+            if (sequences.get(index) != pos + 1) {
+                break;
+            }
+            sink.accept(timestamps[index], methods[index], paths[index], users[index],
+                    statuses[index], latencies[index], dbTimes[index]);
+            methods[index] = null;
+            paths[index] = null;
+            users[index] = null;
+            sequences.lazySet(index, pos + mask + 1);
+            pos++;
+            drained++;
+        }
+        head = pos;
+        return drained;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,257 @@
+package org.example.projectfinalspring.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Фоновый поток, который забирает записи журнала доступа из кольцевого буфера пачками и дописывает их
+ * в локальный файл. Файл переименовывается в access.log.1, access.log.2, ... при превышении размера,
+ * хранится не больше max-history старых файлов. Ошибки записи не останавливают поток: пачка
+ * учитывается как потерянная, файл открывается заново на следующей пачке.
+ */
+@Component
+public class AccessLogWriter implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(AccessLogWriter.class);
+
+    private final boolean enabled;
+    private final Path file;
+    private final long maxFileSize;
+    private final int maxHistory;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final AccessLogRingBuffer buffer;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    // Дальше используются только потоком записи
+    private final StringBuilder line = new StringBuilder(256);
+    private Writer out;
+    private long fileSize;
+    private volatile boolean running;
+    private Thread thread;
+
+    public AccessLogWriter(@Value("${app.access-log.enabled:true}") boolean enabled,
+                           @Value("${app.access-log.file:logs/access.log}") Path file,
+                           @Value("${app.access-log.max-file-size:100MB}") DataSize maxFileSize,
+                           @Value("${app.access-log.max-history:10}") int maxHistory,
+                           @Value("${app.access-log.buffer-size:65536}") int bufferSize,
+                           @Value("${app.access-log.batch-size:1024}") int batchSize,
+                           @Value("${app.access-log.flush-interval:200ms}") Duration flushInterval) {
+        this.enabled = enabled;
+        this.file = file;
+        this.maxFileSize = maxFileSize.toBytes();
+        this.maxHistory = maxHistory;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.buffer = new AccessLogRingBuffer(bufferSize);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public AccessLogRingBuffer getBuffer() {
+        return buffer;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "access-log-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("access.log.dropped", buffer, AccessLogRingBuffer::droppedCount)
+                .description("Access log records dropped because the ring buffer was full")
+                .register(registry);
+        FunctionCounter.builder("access.log.failed", failed, LongAdder::sum)
+                .description("Access log records lost on file write errors")
+                .register(registry);
+        FunctionCounter.builder("access.log.written", written, LongAdder::sum)
+                .description("Access log records written to the file")
+                .register(registry);
+        Gauge.builder("access.log.pending", buffer, AccessLogRingBuffer::size)
+                .description("Access log records waiting in the ring buffer")
+                .register(registry);
+    }
+
+    private void run() {
+        boolean dirty = false;
+        while (true) {
+            boolean stopping = !running;
+            int drained = buffer.drain(this::append, batchSize);
+            if (drained > 0) {
+                written.add(drained);
+                dirty = true;
+                continue;
+            }
+            if (dirty) {
+                flush();
+                dirty = false;
+            }
+            if (stopping) {
+                break;
+            }
+            LockSupport.parkNanos(this, flushIntervalNanos);
+        }
+        close();
+    }
+
+    private void append(long timestamp, String method, String path, String user,
+                        int status, long latencyNanos, long dbNanos) {
+        StringBuilder sb = line;
+        sb.setLength(0);
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(timestamp), sb);
+        sb.append('\t').append(method)
+                .append('\t').append(path)
+                .append('\t').append(user != null ? user : "-")
+                .append('\t').append(status)
+                .append('\t');
+        appendMillis(sb, latencyNanos);
+        sb.append('\t');
+        appendMillis(sb, dbNanos);
+        sb.append('\n');
+        try {
+            if (out == null || fileSize >= maxFileSize) {
+                open();
+            }
+            out.append(sb);
+            fileSize += utf8Length(sb);
+        } catch (IOException e) {
+            written.decrement();
+            failed.increment();
+            log.warn("Failed to write access log {}", file, e);
+            close();
+        }
+    }
+
+    // Размер строки в файле: путь и имя пользователя могут быть не ASCII. Считается без кодирования в byte[]
+    static long utf8Length(CharSequence chars) {
+        long bytes = 0;
+        for (int i = 0; i < chars.length(); i++) {
+            char c = chars.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < chars.length()
+                    && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    // Миллисекунды с тремя знаками после точки без форматирования через String.format
+    private static void appendMillis(StringBuilder sb, long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        sb.append(micros / 1000).append('.');
+        long fraction = micros % 1000;
+        if (fraction < 100) {
+            sb.append('0');
+        }
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        sb.append(fraction);
+    }
+
+    private void open() throws IOException {
+        close();
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        if (Files.exists(file) && Files.size(file) >= maxFileSize) {
+            roll();
+        }
+        out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        fileSize = Files.size(file);
+    }
+
+    private void roll() throws IOException {
+        Files.deleteIfExists(archive(maxHistory));
+        for (int i = maxHistory - 1; i >= 1; i--) {
+            Path source = archive(i);
+            if (Files.exists(source)) {
+                Files.move(source, archive(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxHistory > 0) {
+            Files.move(file, archive(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(file);
+        }
+    }
+
+    private Path archive(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private void flush() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.flush();
+        } catch (IOException e) {
+            log.warn("Failed to flush access log {}", file, e);
+            close();
+        }
+    }
+
+    private void close() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.warn("Failed to close access log {}", file, e);
+        }
+        out = null;
+    }
+}
@@ -5,6 +5,7 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.example.projectfinalspring.services.TokenRevocationService;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -14,9 +15,11 @@ import java.io.IOException;
 public class JwtRequestFilter extends OncePerRequestFilter {
 
     private final JwtTokenUtil jwtTokenUtil;
+    private final TokenRevocationService revocationService;
 
-    public JwtRequestFilter(JwtTokenUtil jwtTokenUtil) {
+    public JwtRequestFilter(JwtTokenUtil jwtTokenUtil, TokenRevocationService revocationService) {
         this.jwtTokenUtil = jwtTokenUtil;
+        this.revocationService = revocationService;
     }
 
     @Override
@@ -25,19 +28,17 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
-
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            username = jwtTokenUtil.extractUsername(jwt);
-        }
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtTokenUtil.isTokenValid(jwt, username)) {
+        // Токен разбирается и проверяется один раз; повторные запросы с ним берут результат из кэша
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwt = authorizationHeader.substring(7);
+            VerifiedToken token = jwtTokenUtil.verify(jwt).orElse(null);
+            // Отзыв проверяется на каждом запросе: кэш проверенных токенов о нём не знает
+            if (token != null && !revocationService.isRevoked(token.getTokenId())) {
                 UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(username, null, null);
+                        new UsernamePasswordAuthenticationToken(token, null, token.getAuthorities());
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                request.setAttribute(AccessLogFilter.USER_ATTRIBUTE, token.getSubject());
             }
         }
         chain.doFilter(request, response);
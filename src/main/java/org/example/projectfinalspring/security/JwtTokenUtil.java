@@ -1,58 +1,131 @@
 package org.example.projectfinalspring.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.Optional;
+import java.util.UUID;
 
+/**
+ * Выпуск и проверка JWT. Ключ и парсер создаются один раз; проверенные токены кэшируются
+ * по SHA-256 от токена до истечения их срока, поэтому повторные запросы с тем же токеном
+ * не разбирают JSON и не считают HMAC заново. Сам токен в кэше не хранится.
+ */
 @Component
 public class JwtTokenUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLE_CLAIM = "role";
 
-    @Value("${jwt.expiration:3600000}")  // час по умолчанию
-    private Long expirationTime;
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final Long expirationTime;
+    private final Cache<ByteBuffer, VerifiedToken> verified;
 
-    public String generateToken(String username) {
+    public JwtTokenUtil(@Value("${jwt.secret}") String secret,
+                        @Value("${jwt.expiration:3600000}") Long expirationTime,  // час по умолчанию
+                        @Value("${jwt.cache.maximum-size:10000}") long cacheMaximumSize) {
+        // Секрет задаётся в base64, как и раньше при signWith(HS256, secret)
+        this.signingKey = new SecretKeySpec(Decoders.BASE64.decode(secret), SignatureAlgorithm.HS256.getJcaName());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.expirationTime = expirationTime;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfter(new Expiry<ByteBuffer, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer key, VerifiedToken token, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), token.getExpiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ByteBuffer key, VerifiedToken token, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(ByteBuffer key, VerifiedToken token, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public String generateToken(Long userId, String username, String role) {
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
+                .claim(USER_ID_CLAIM, userId)
+                .claim(ROLE_CLAIM, role)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expirationTime))
-                .signWith(SignatureAlgorithm.HS256, secret)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(secret)
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Проверяет подпись и срок действия. Пустой результат — токен неверный, просрочен, без срока действия
+     * или без jti и id пользователя (выпущен до появления claim'ов). Отзыв здесь не проверяется.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        ByteBuffer key = hash(token);
+        VerifiedToken cached = verified.getIfPresent(key);
+        if (cached != null) {
+            return cached.isExpired(Instant.now()) ? Optional.empty() : Optional.of(cached);
+        }
+        VerifiedToken parsed = parse(token);
+        if (parsed == null) {
+            return Optional.empty();
+        }
+        verified.put(key, parsed);
+        return Optional.of(parsed);
     }
 
-    public boolean isTokenValid(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username)) && !isTokenExpired(token);
+    private VerifiedToken parse(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Number userId = claims.get(USER_ID_CLAIM, Number.class);
+            if (claims.getId() == null || claims.getSubject() == null || claims.getExpiration() == null
+                    || userId == null) {
+                return null;
+            }
+            Date issuedAt = claims.getIssuedAt();
+            return new VerifiedToken(claims.getId(), claims.getSubject(), userId.longValue(), claims.get(ROLE_CLAIM, String.class),
+                    issuedAt != null ? issuedAt.toInstant() : null,
+                    claims.getExpiration().toInstant());
+        } catch (JwtException | IllegalArgumentException e) {
+            // RequiredTypeException (claim другого типа) тоже JwtException
+            return null;
+        }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private static ByteBuffer hash(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
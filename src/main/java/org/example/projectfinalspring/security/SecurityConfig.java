@@ -1,8 +1,10 @@
 package org.example.projectfinalspring.security;
 
+import org.example.projectfinalspring.services.TokenRevocationService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
@@ -14,45 +16,29 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
-import org.example.projectfinalspring.security.JwtRequestFilter;
+import org.springframework.security.web.session.DisableEncodeUrlFilter;
 
+// Зависимости передаются в методы бинов, а не в конструктор: конструктор, требующий бины,
+// которые объявлены в этом же классе, давал циклическую зависимость при старте
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
-
-    private final UserDetailsService userDetailsService;
-    private final PasswordEncoder passwordEncoder;
-    private final JwtRequestFilter jwtRequestFilter;
-
-    private final JwtTokenUtil jwtTokenUtil;
-
-    public SecurityConfig(
-            UserDetailsService userDetailsService,
-            PasswordEncoder passwordEncoder,
-            JwtRequestFilter jwtRequestFilter,
-            JwtTokenUtil jwtTokenUtil
-    ) {
-        this.userDetailsService = userDetailsService;
-        this.passwordEncoder = passwordEncoder;
-        this.jwtRequestFilter = jwtRequestFilter;
-        this.jwtTokenUtil = jwtTokenUtil;
-    }
-
+    // Смена стоимости не ломает старые хеши: они пересчитываются при входе (PasswordHashingService)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
-    public JwtRequestFilter jwtRequestFilter(JwtTokenUtil jwtTokenUtil) {
-        return new JwtRequestFilter(jwtTokenUtil);
+    public JwtRequestFilter jwtRequestFilter(JwtTokenUtil jwtTokenUtil, TokenRevocationService revocationService) {
+        return new JwtRequestFilter(jwtTokenUtil, revocationService);
     }
 
     @Bean
-    public AuthenticationManager authenticationManager(HttpSecurity http) throws Exception {
+    public AuthenticationManager authenticationManager(HttpSecurity http,
+                                                       UserDetailsService userDetailsService,
+                                                       PasswordEncoder passwordEncoder) throws Exception {
         AuthenticationManagerBuilder authManagerBuilder =
                 http.getSharedObject(AuthenticationManagerBuilder.class);
         authManagerBuilder
@@ -62,18 +48,33 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   JwtRequestFilter jwtRequestFilter,
+                                                   AccessLogWriter accessLogWriter) throws Exception {
         http
                 .cors(Customizer.withDefaults())
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(sm -> sm
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authz -> authz
-                        .requestMatchers("/api/auth/login").permitAll()
+                        .requestMatchers("/api/auth/login", "/api/auth/refresh").permitAll()
                         .requestMatchers("/admin/**").hasRole("ADMIN")
+                        // Выгрузка задач всех пользователей
+                        .requestMatchers("/api/tasks/export").hasRole("ADMIN")
+                        // Задачи и уведомления пользователя — только ему самому и администратору
+                        .requestMatchers("/api/users/{user_id}/tasks/**", "/api/users/{user_id}/tasks:*",
+                                "/api/users/{user_id}/notifications/**").access(new UserPathAuthorizationManager())
+                        // Изменение и удаление учётной записи — так же
+                        .requestMatchers(HttpMethod.PUT, "/api/users/{user_id}").access(new UserPathAuthorizationManager())
+                        .requestMatchers(HttpMethod.DELETE, "/api/users/{user_id}").access(new UserPathAuthorizationManager())
                         .anyRequest().authenticated())
                 .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
 
+        // Не бин: иначе Boot зарегистрировал бы его ещё и как обычный фильтр сервлета
+        if (accessLogWriter.isEnabled()) {
+            http.addFilterBefore(new AccessLogFilter(accessLogWriter.getBuffer()), DisableEncodeUrlFilter.class);
+        }
+
         return http.build();
     }
 }
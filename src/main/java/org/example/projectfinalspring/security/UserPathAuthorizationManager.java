@@ -0,0 +1,34 @@
+package org.example.projectfinalspring.security;
+
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.function.Supplier;
+
+/**
+ * Пускает к ресурсам /api/users/{user_id}/... только их владельца или администратора.
+ * Id пользователя и роль берутся из проверенного токена, база не читается.
+ */
+public class UserPathAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    @Override
+    public AuthorizationResult authorize(Supplier<? extends Authentication> authentication,
+                                         RequestAuthorizationContext context) {
+        Authentication current = authentication.get();
+        if (current == null || !current.isAuthenticated()
+                || !(current.getPrincipal() instanceof VerifiedToken token)) {
+            return DENIED;
+        }
+        if (token.isAdmin()) {
+            return GRANTED;
+        }
+        String userId = context.getVariables().get("user_id");
+        return userId != null && userId.equals(Long.toString(token.getUserId())) ? GRANTED : DENIED;
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.projectfinalspring.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Проверенный JWT: подпись и срок действия уже проверены, поля только для чтения.
+ * Служит principal'ом аутентификации: id пользователя и роль берутся из токена без обращения к базе.
+ */
+public final class VerifiedToken implements Principal {
+
+    private final String tokenId;
+    private final String subject;
+    private final Long userId;
+    private final String role;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+    // Собираются один раз и кэшируются вместе с токеном
+    private final List<GrantedAuthority> authorities;
+
+    public VerifiedToken(String tokenId, String subject, Long userId, String role, Instant issuedAt, Instant expiresAt) {
+        this.tokenId = tokenId;
+        this.subject = subject;
+        this.userId = userId;
+        this.role = role;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+        this.authorities = role != null ? List.of(new SimpleGrantedAuthority("ROLE_" + role)) : List.of();
+    }
+
+    @Override
+    public String getName() {
+        return subject;
+    }
+
+    /**
+     * jti: по нему токен отзывается.
+     */
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    public boolean isAdmin() {
+        return "ADMIN".equals(role);
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    @Override
+    public String toString() {
+        return "VerifiedToken{" +
+                "tokenId='" + tokenId + '\'' +
+                ", subject='" + subject + '\'' +
+                ", userId=" + userId +
+                ", role='" + role + '\'' +
+                ", issuedAt=" + issuedAt +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
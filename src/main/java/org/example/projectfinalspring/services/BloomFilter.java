@@ -0,0 +1,94 @@
+package org.example.projectfinalspring.services;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Фильтр Блума по строкам. Размер округляется вверх до степени двойки, k позиций получаются двойным
+ * хешированием из одного 64-битного хеша, посчитанного по символам строки без выделения памяти.
+ * Проверка и добавление потокобезопасны: биты только выставляются, чтение — volatile.
+ */
+public class BloomFilter {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray words;
+    private final long mask;
+    private final int hashes;
+
+    private BloomFilter(long bits, int hashes) {
+        this.words = new AtomicLongArray((int) (bits >>> 6));
+        this.mask = bits - 1;
+        this.hashes = hashes;
+    }
+
+    /**
+     * Фильтр на {@code expectedInsertions} элементов с долей ложных срабатываний около {@code falsePositiveRate}.
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(expectedInsertions, 1);
+        double ln2 = Math.log(2);
+        long optimalBits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2));
+        long bits = Math.max(64, Long.highestOneBit(Math.max(optimalBits, 1) - 1) << 1);
+        if (bits > (1L << 36)) {
+            throw new IllegalArgumentException("Bloom filter too large: " + bits + " bits");
+        }
+        int hashes = Math.max(1, (int) Math.round((double) bits / n * ln2));
+        return new BloomFilter(bits, Math.min(hashes, 16));
+    }
+
+    public void put(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 + 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = (h1 + i * h2) & mask;
+            int word = (int) (bit >>> 6);
+            long bitMask = 1L << bit;
+            long current = words.get(word);
+            while ((current & bitMask) == 0 && !words.compareAndSet(word, current, current | bitMask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    /**
+     * false — элемента точно нет; true — возможно есть, нужна точная проверка.
+     */
+    public boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 + 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = (h1 + i * h2) & mask;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return mask + 1;
+    }
+
+    public int hashCount() {
+        return hashes;
+    }
+
+    private static long hash(String value) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return mix(h);
+    }
+
+    // Финализатор MurmurHash3: перемешивает биты, чтобы младшие биты позиции зависели от всех символов
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
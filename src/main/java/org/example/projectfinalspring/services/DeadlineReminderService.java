@@ -0,0 +1,237 @@
+package org.example.projectfinalspring.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.projectfinalspring.entities.Task;
+import org.example.projectfinalspring.entities.TaskStatus;
+import org.example.projectfinalspring.repositories.NotificationRepository;
+import org.example.projectfinalspring.repositories.TaskDeadline;
+import org.example.projectfinalspring.repositories.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Напоминания о дедлайнах. Ближайшие дедлайны открытых задач держатся в памяти в {@link TimingWheel}:
+ * при старте они читаются из базы один раз, дальше колесо обновляют TaskService и UserDeletionService
+ * после фиксации своих транзакций. Раз в тик сработавшие задачи пачками превращаются в строки
+ * notifications, и только в этот момент их состояние сверяется с базой.
+ * <p>
+ * Каждый узел держит своё колесо. Изменения, сделанные через другой узел, здесь не видны, но сверка
+ * при срабатывании не даст напомнить не вовремя, а повторную вставку отсекает уникальный ключ.
+ */
+@Service
+public class DeadlineReminderService implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(DeadlineReminderService.class);
+
+    private final TaskRepository taskRepository;
+    private final NotificationRepository notificationRepository;
+    private final TransactionTemplate readTemplate;
+    private final TransactionTemplate writeTemplate;
+    private final Clock clock;
+    private final boolean enabled;
+    private final long tickMillis;
+    private final Duration leadTime;
+    private final int batchSize;
+    private final TimingWheel wheel;
+    private volatile boolean loaded;
+
+    public DeadlineReminderService(TaskRepository taskRepository,
+                                   NotificationRepository notificationRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${tasks.reminders.enabled:true}") boolean enabled,
+                                   @Value("${tasks.reminders.tick:PT1M}") Duration tick,
+                                   @Value("${tasks.reminders.lead-time:PT24H}") Duration leadTime,
+                                   @Value("${tasks.reminders.batch-size:1000}") int batchSize,
+                                   @Value("${tasks.reminders.initial-capacity:1024}") int initialCapacity) {
+        this.taskRepository = taskRepository;
+        this.notificationRepository = notificationRepository;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.clock = Clock.systemDefaultZone();
+        this.enabled = enabled;
+        this.tickMillis = tick.toMillis();
+        this.leadTime = leadTime;
+        this.batchSize = batchSize;
+        this.wheel = new TimingWheel(currentTick(), initialCapacity);
+    }
+
+    /**
+     * Вызывается после сохранения задачи: ставит, переносит или снимает напоминание.
+     */
+    public void onTaskSaved(Task task) {
+        if (!enabled || task.getId() == null) {
+            return;
+        }
+        Long id = task.getId();
+        TaskStatus status = task.getStatus();
+        LocalDate deadline = task.getDeadline();
+        afterCommit(() -> {
+            synchronized (wheel) {
+                if (needsReminder(status, deadline)) {
+                    wheel.schedule(id, reminderTick(deadline));
+                } else {
+                    wheel.cancel(id);
+                }
+            }
+        });
+    }
+
+    /**
+     * Вызывается после массовой смены статуса: ставит или снимает напоминания сразу для всех изменённых задач.
+     */
+    public void onStatusChanged(List<TaskDeadline> tasks, TaskStatus status) {
+        if (!enabled || tasks.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            synchronized (wheel) {
+                for (TaskDeadline task : tasks) {
+                    if (needsReminder(status, task.getDeadline())) {
+                        wheel.schedule(task.getId(), reminderTick(task.getDeadline()));
+                    } else {
+                        wheel.cancel(task.getId());
+                    }
+                }
+            }
+        });
+    }
+
+    public void onTaskDeleted(Long taskId) {
+        onTasksDeleted(List.of(taskId));
+    }
+
+    /**
+     * Вызывается после массового удаления задач, например вместе с пользователем.
+     */
+    public void onTasksDeleted(Collection<Long> taskIds) {
+        if (!enabled || taskIds.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            synchronized (wheel) {
+                taskIds.forEach(wheel::cancel);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.reminders.tick:PT1M}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        if (!loaded) {
+            load();
+        }
+        fireDue();
+    }
+
+    /**
+     * Загружает напоминания для всех открытых задач с дедлайном не раньше сегодняшнего.
+     * Записи, уже поставленные из TaskService за время загрузки, не перезаписываются: они свежее прочитанных.
+     */
+    void load() {
+        LocalDate today = LocalDate.now(clock);
+        List<TaskStatus> open = Arrays.stream(TaskStatus.values())
+                .filter(status -> !status.isClosed())
+                .toList();
+        int[] count = new int[1];
+        readTemplate.executeWithoutResult(status -> {
+            try (Stream<TaskDeadline> deadlines = taskRepository.streamDeadlinesFrom(today, open)) {
+                deadlines.forEach(task -> {
+                    long tick = reminderTick(task.getDeadline());
+                    synchronized (wheel) {
+                        wheel.scheduleIfAbsent(task.getId(), tick);
+                    }
+                    count[0]++;
+                });
+            }
+        });
+        loaded = true;
+        log.info("Loaded {} deadline reminders", count[0]);
+    }
+
+    /**
+     * Снимает с колеса сработавшие задачи и пачками создаёт по ним напоминания.
+     * Возвращает число созданных строк.
+     */
+    int fireDue() {
+        List<Long> due = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advanceTo(currentTick(), due::add);
+        }
+        if (due.isEmpty()) {
+            return 0;
+        }
+        LocalDate today = LocalDate.now(clock);
+        LocalDate dueBy = LocalDateTime.now(clock).plus(leadTime).toLocalDate();
+        int inserted = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            Integer rows = writeTemplate.execute(
+                    status -> notificationRepository.insertDeadlineReminders(batch, today, dueBy));
+            inserted += rows == null ? 0 : rows;
+        }
+        log.debug("Fired {} deadline reminders, {} notifications created", due.size(), inserted);
+        return inserted;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("tasks.reminders.pending", wheel, w -> {
+                    synchronized (w) {
+                        return w.size();
+                    }
+                })
+                .description("Deadline reminders waiting in the timing wheel")
+                .register(registry);
+    }
+
+    // Колесо меняется только после фиксации: откат не должен оставить напоминание о несохранённой задаче
+    // или снять его с задачи, которая так и не удалилась
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private boolean needsReminder(TaskStatus status, LocalDate deadline) {
+        return status != null && !status.isClosed()
+                && deadline != null && !deadline.isBefore(LocalDate.now(clock));
+    }
+
+    // Округление вверх: напоминание не должно сработать раньше срока, иначе сверка при срабатывании его отбросит
+    private long reminderTick(LocalDate deadline) {
+        long remindAt = deadline.atStartOfDay(clock.getZone()).minus(leadTime).toInstant().toEpochMilli();
+        return Math.floorDiv(remindAt + tickMillis - 1, tickMillis);
+    }
+
+    private long currentTick() {
+        return Math.floorDiv(clock.millis(), tickMillis);
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.projectfinalspring.services;
+
+import org.example.projectfinalspring.entities.Notification;
+import org.example.projectfinalspring.repositories.NotificationRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class NotificationService {
+
+    private final NotificationRepository notificationRepository;
+
+    public NotificationService(NotificationRepository notificationRepository) {
+        this.notificationRepository = notificationRepository;
+    }
+
+    /**
+     * Напоминания пользователя от новых к старым, с id меньше {@code beforeId} (null — с самого нового).
+     */
+    @Transactional(readOnly = true)
+    public List<Notification> findPage(Long userId, Long beforeId, int limit) {
+        return notificationRepository.findPage(userId, beforeId == null ? Long.MAX_VALUE : beforeId, Limit.of(limit));
+    }
+}
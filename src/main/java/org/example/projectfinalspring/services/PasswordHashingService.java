@@ -0,0 +1,127 @@
+package org.example.projectfinalspring.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Проверка паролей BCrypt на отдельном пуле размером с число ядер и с ограниченной очередью.
+ * Поток запроса не считает хеш: при входе он возвращает CompletableFuture, а при заполненной очереди
+ * сразу получает RejectedExecutionException (503), поэтому поток входов не занимает все потоки Tomcat.
+ * <p>
+ * Если стоимость сохранённого хеша отличается от настроенной, после успешной проверки пароль
+ * хешируется заново — вызывающий сохраняет новый хеш.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$.+");
+
+    private final PasswordEncoder passwordEncoder;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final Timer matchesTimer;
+    private final Timer encodeTimer;
+    private final Timer queueWaitTimer;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry registry,
+                                  @Value("${security.bcrypt.strength:10}") int strength,
+                                  @Value("${security.bcrypt.threads:0}") int threads,
+                                  @Value("${security.bcrypt.queue-capacity:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.strength = strength;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        Counter rejected = Counter.builder("auth.password.rejected")
+                .description("Password checks rejected because the hashing queue was full")
+                .register(registry);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hashing-"),
+                (task, pool) -> {
+                    rejected.increment();
+                    throw new RejectedExecutionException("Password hashing queue is full");
+                });
+        this.matchesTimer = hashTimer(registry, "matches");
+        this.encodeTimer = hashTimer(registry, "encode");
+        this.queueWaitTimer = Timer.builder("auth.password.queue.wait")
+                .description("Time a password check waited for a hashing thread")
+                .register(registry);
+        Gauge.builder("auth.password.queue.size", executor, pool -> pool.getQueue().size())
+                .description("Password checks waiting for a hashing thread")
+                .register(registry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes being computed")
+                .register(registry);
+    }
+
+    /**
+     * Проверяет пароль на пуле хеширования. Если очередь заполнена — RejectedExecutionException сразу.
+     */
+    public CompletableFuture<PasswordCheck> verify(String rawPassword, String encodedPassword) {
+        long submitted = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> {
+            queueWaitTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+            if (rawPassword == null || encodedPassword == null) {
+                return new PasswordCheck(false, null);
+            }
+            boolean matches = matchesTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+            String upgraded = matches && needsRehash(encodedPassword)
+                    ? encodeTimer.record(() -> passwordEncoder.encode(rawPassword))
+                    : null;
+            return new PasswordCheck(matches, upgraded);
+        }, executor);
+    }
+
+    boolean needsRehash(String encodedPassword) {
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.matches() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static Timer hashTimer(MeterRegistry registry, String operation) {
+        return Timer.builder("auth.password.hash")
+                .description("BCrypt hashing time")
+                .tag("operation", operation)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+
+    public static final class PasswordCheck {
+        private final boolean matches;
+        private final String upgradedHash;
+
+        public PasswordCheck(boolean matches, String upgradedHash) {
+            this.matches = matches;
+            this.upgradedHash = upgradedHash;
+        }
+
+        public boolean isMatches() {
+            return matches;
+        }
+
+        /**
+         * Новый хеш с настроенной стоимостью или null, если пересчитывать не нужно.
+         */
+        public String getUpgradedHash() {
+            return upgradedHash;
+        }
+    }
+}
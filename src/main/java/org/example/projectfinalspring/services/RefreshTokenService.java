@@ -0,0 +1,156 @@
+package org.example.projectfinalspring.services;
+
+import org.example.projectfinalspring.entities.RefreshToken;
+import org.example.projectfinalspring.repositories.RefreshTokenRepository;
+import org.example.projectfinalspring.repositories.RefreshTokenUse;
+import org.example.projectfinalspring.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Refresh-токены: случайные 256 бит, в базе — только SHA-256 (BCrypt не нужен: токен не подбирается
+ * по словарю). Каждый токен одноразовый: при обновлении он гасится и выдаётся следующий в той же цепочке.
+ * Повторное предъявление погашенного токена значит, что его кто-то скопировал, — удаляется вся цепочка,
+ * и обоим клиентам придётся войти заново.
+ */
+@Service
+public class RefreshTokenService {
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final int cleanupChunkSize;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               UserRepository userRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${jwt.refresh.ttl:P30D}") Duration ttl,
+                               @Value("${jwt.refresh.cleanup-chunk-size:5000}") int cleanupChunkSize) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.cleanupChunkSize = cleanupChunkSize;
+    }
+
+    /**
+     * Выдаёт при входе токен новой цепочки.
+     */
+    public String issue(Long userId) {
+        return transactionTemplate.execute(status -> create(userId, UUID.randomUUID().toString()));
+    }
+
+    /**
+     * Гасит токен и выдаёт следующий. Пустой результат — токен неизвестен, истёк или уже использован;
+     * в последнем случае цепочка удаляется.
+     */
+    public Optional<Rotation> rotate(String rawToken) {
+        String tokenHash = hash(rawToken);
+        return transactionTemplate.execute(status -> {
+            Optional<RefreshTokenUse> used = refreshTokenRepository.markUsed(tokenHash);
+            if (used.isPresent()) {
+                RefreshTokenUse owner = used.get();
+                return Optional.of(new Rotation(owner, create(owner.getUserId(), owner.getFamilyId())));
+            }
+            refreshTokenRepository.findFamilyOfUsedToken(tokenHash).ifPresent(familyId -> {
+                int deleted = refreshTokenRepository.deleteFamily(familyId);
+                log.warn("Refresh token reuse detected, revoked family {} ({} tokens)", familyId, deleted);
+            });
+            return Optional.empty();
+        });
+    }
+
+    /**
+     * Отзывает цепочку, к которой относится токен (выход из системы).
+     */
+    public void revoke(String rawToken) {
+        String tokenHash = hash(rawToken);
+        transactionTemplate.executeWithoutResult(status -> refreshTokenRepository.findFamilyByTokenHash(tokenHash)
+                .ifPresent(refreshTokenRepository::deleteFamily));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.cleanup-interval:PT1H}",
+            initialDelayString = "${jwt.refresh.cleanup-initial-delay:PT10M}")
+    public void run() {
+        cleanup();
+    }
+
+    /**
+     * Удаляет истёкшие токены, в том числе погашенные. Возвращает число удалённых строк.
+     */
+    public int cleanup() {
+        OffsetDateTime threshold = OffsetDateTime.now();
+        int total = 0;
+        int deleted;
+        do {
+            Integer chunk = transactionTemplate.execute(
+                    status -> refreshTokenRepository.deleteExpiredBefore(threshold, cleanupChunkSize));
+            deleted = chunk == null ? 0 : chunk;
+            total += deleted;
+        } while (deleted == cleanupChunkSize);
+
+        if (total > 0) {
+            log.info("Deleted {} expired refresh tokens", total);
+        }
+        return total;
+    }
+
+    private String create(Long userId, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(hash(rawToken), familyId,
+                userRepository.getReferenceById(userId), OffsetDateTime.now().plus(ttl)));
+        return rawToken;
+    }
+
+    static String hash(String rawToken) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(rawToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static final class Rotation {
+        private final RefreshTokenUse owner;
+        private final String refreshToken;
+
+        public Rotation(RefreshTokenUse owner, String refreshToken) {
+            this.owner = owner;
+            this.refreshToken = refreshToken;
+        }
+
+        public RefreshTokenUse getOwner() {
+            return owner;
+        }
+
+        /**
+         * Следующий токен цепочки; предыдущий больше не действует.
+         */
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.projectfinalspring.services;
+
+import org.example.projectfinalspring.repositories.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Переносит завершённые задачи с давно прошедшим дедлайном из {@code tasks} в {@code tasks_archive}.
+ * Каждая пачка — отдельная короткая транзакция, чтобы не держать блокировки на живой таблице.
+ */
+@Component
+public class TaskArchiveJob {
+    private static final Logger log = LoggerFactory.getLogger(TaskArchiveJob.class);
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration olderThan;
+    private final int chunkSize;
+
+    public TaskArchiveJob(TaskRepository taskRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${tasks.archive.enabled:true}") boolean enabled,
+                          @Value("${tasks.archive.older-than:P90D}") Duration olderThan,
+                          @Value("${tasks.archive.chunk-size:1000}") int chunkSize) {
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.olderThan = olderThan;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.archive.interval:PT1H}",
+            initialDelayString = "${tasks.archive.initial-delay:PT5M}")
+    public void run() {
+        if (enabled) {
+            archive();
+        }
+    }
+
+    /**
+     * Возвращает число перенесённых задач.
+     */
+    public int archive() {
+        LocalDate cutoff = LocalDate.now().minusDays(olderThan.toDays());
+        transactionTemplate.executeWithoutResult(status -> taskRepository.createArchivePartitions(cutoff));
+
+        int total = 0;
+        int moved;
+        do {
+            List<Long> ids = transactionTemplate.execute(status -> taskRepository.archiveDone(cutoff, chunkSize));
+            moved = ids == null ? 0 : ids.size();
+            total += moved;
+        } while (moved == chunkSize);
+
+        if (total > 0) {
+            log.info("Archived {} tasks with deadline before {}", total, cutoff);
+        }
+        return total;
+    }
+}
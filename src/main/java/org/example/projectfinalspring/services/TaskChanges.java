@@ -0,0 +1,39 @@
+package org.example.projectfinalspring.services;
+
+import org.example.projectfinalspring.entities.Task;
+
+import java.util.List;
+
+/**
+ * Страница ленты изменений: изменённые и созданные задачи, id пропавших задач и позиция для следующего запроса.
+ */
+public final class TaskChanges {
+
+    private final List<Task> changed;
+    private final List<Long> deleted;
+    private final TaskSyncCursor next;
+    private final boolean hasMore;
+
+    public TaskChanges(List<Task> changed, List<Long> deleted, TaskSyncCursor next, boolean hasMore) {
+        this.changed = changed;
+        this.deleted = deleted;
+        this.next = next;
+        this.hasMore = hasMore;
+    }
+
+    public List<Task> getChanged() {
+        return changed;
+    }
+
+    public List<Long> getDeleted() {
+        return deleted;
+    }
+
+    public TaskSyncCursor getNext() {
+        return next;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
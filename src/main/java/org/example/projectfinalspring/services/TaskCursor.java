@@ -0,0 +1,58 @@
+package org.example.projectfinalspring.services;
+
+import org.example.projectfinalspring.entities.Task;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция в выдаче задач, упорядоченной по (deadline, id).
+ * Клиенту отдаётся в виде непрозрачной строки.
+ */
+public final class TaskCursor {
+
+    private final LocalDate deadline;
+    private final Long id;
+
+    public TaskCursor(LocalDate deadline, Long id) {
+        this.deadline = deadline;
+        this.id = id;
+    }
+
+    public static TaskCursor of(Task task) {
+        return new TaskCursor(task.getDeadline(), task.getId());
+    }
+
+    public static TaskCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new TaskCursor(
+                    LocalDate.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = deadline + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDate getDeadline() {
+        return deadline;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
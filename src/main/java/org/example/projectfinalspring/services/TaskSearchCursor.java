@@ -0,0 +1,56 @@
+package org.example.projectfinalspring.services;
+
+import org.example.projectfinalspring.repositories.TaskSearchHit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Позиция в результатах поиска, упорядоченных по (rank desc, id desc).
+ */
+public final class TaskSearchCursor {
+
+    private final float rank;
+    private final Long id;
+
+    public TaskSearchCursor(float rank, Long id) {
+        this.rank = rank;
+        this.id = id;
+    }
+
+    public static TaskSearchCursor of(TaskSearchHit hit) {
+        return new TaskSearchCursor(hit.getRank(), hit.getTask().getId());
+    }
+
+    public static TaskSearchCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new TaskSearchCursor(
+                    Float.parseFloat(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        // Float.toString восстанавливается в то же значение, поэтому сравнение rank в запросе точное
+        String raw = rank + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public float getRank() {
+        return rank;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
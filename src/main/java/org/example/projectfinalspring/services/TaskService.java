@@ -1,20 +1,75 @@
 package org.example.projectfinalspring.services;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.projectfinalspring.entities.ArchivedTask;
 import org.example.projectfinalspring.entities.Task;
+import org.example.projectfinalspring.entities.TaskStats;
+import org.example.projectfinalspring.entities.TaskStatus;
+import org.example.projectfinalspring.entities.TaskTombstone;
+import org.example.projectfinalspring.entities.User;
+import org.example.projectfinalspring.repositories.ResourceVersion;
+import org.example.projectfinalspring.repositories.TaskDeadline;
+import org.example.projectfinalspring.repositories.TaskFilter;
 import org.example.projectfinalspring.repositories.TaskRepository;
+import org.example.projectfinalspring.repositories.TaskSearchHit;
+import org.example.projectfinalspring.repositories.TaskStatsDelta;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class TaskService {
+    private static final Comparator<Task> PAGE_ORDER = Comparator.comparing(Task::getDeadline)
+            .thenComparing(Task::getId);
 
     private TaskRepository taskRepository;
+    private DeadlineReminderService reminderService;
 
-    public TaskService(TaskRepository taskRepository) {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Value("${tasks.export.clear-interval:1000}")
+    private int exportClearInterval;
+
+    // Лента отдаёт только изменения старше этого окна: запись, зафиксированная позже своего updated_at
+    // (долгая транзакция, отставание реплики), иначе оказалась бы позади уже выданной позиции
+    @Value("${tasks.sync.safety-window:PT15S}")
+    private Duration syncSafetyWindow;
+
+    @Value("${tasks.sync.tombstone-retention:P30D}")
+    private Duration tombstoneRetention;
+
+    // Без аннотации Spring выбрал бы конструктор без параметров и оставил зависимости пустыми
+    @Autowired
+    public TaskService(TaskRepository taskRepository, DeadlineReminderService reminderService) {
         this.taskRepository = taskRepository;
+        this.reminderService = reminderService;
     }
 
     public TaskService() {
@@ -22,35 +77,301 @@ public class TaskService {
 
     @Transactional
     public Task createTask(Task task) {
-        return taskRepository.save(task);
+        Task created = taskRepository.save(task);
+        taskRepository.incrementChangeCounters(List.of(created.getUser().getId()));
+        TaskStatsDelta delta = new TaskStatsDelta();
+        delta.add(created.getUser().getId(), created.getStatus(), created.getDeadline());
+        taskRepository.applyStatsDelta(delta);
+        reminderService.onTaskSaved(created);
+        return created;
     }
 
-    public Optional<Task> getTaskById(Long id) {
-        return Optional.of(taskRepository.findById(id).orElseThrow(() -> new RuntimeException("Task not found")));
+    /**
+     * Сохраняет задачи пачками по {@code hibernate.jdbc.batch_size} в одной транзакции.
+     * После каждой пачки контекст очищается, чтобы не держать в памяти уже записанные сущности.
+     */
+    @Transactional
+    public List<Long> createTasks(List<Task> tasks) {
+        // Массовая вставка не должна вытеснять из кэша второго уровня часто читаемые задачи
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previousCacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.GET);
+        try {
+            List<Long> ids = new ArrayList<>(tasks.size());
+            Set<Long> userIds = new HashSet<>();
+            TaskStatsDelta delta = new TaskStatsDelta();
+            for (int i = 0; i < tasks.size(); i++) {
+                Task task = tasks.get(i);
+                entityManager.persist(task);
+                ids.add(task.getId());
+                userIds.add(task.getUser().getId());
+                delta.add(task.getUser().getId(), task.getStatus(), task.getDeadline());
+                reminderService.onTaskSaved(task);
+                if ((i + 1) % batchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            taskRepository.incrementChangeCounters(userIds);
+            taskRepository.applyStatsDelta(delta);
+            return ids;
+        } finally {
+            session.setCacheMode(previousCacheMode);
+        }
     }
 
+    /**
+     * Задача пользователя; чужая задача не отличается от отсутствующей.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Task> getTaskById(Long userId, Long id) {
+        return taskRepository.findByIdAndUserId(id, userId);
+    }
+
+    @Transactional(readOnly = true)
     public List<Task> getAllTasks() {
         return taskRepository.findAll();
     }
 
+    /**
+     * Одна загрузка и dirty-checking flush. Если в taskDetails передана версия,
+     * она должна совпадать с текущей, иначе ObjectOptimisticLockingFailureException.
+     * Пусто, если у пользователя нет такой задачи.
+     */
     @Transactional
-    public Task updateTask(Long id, Task taskDetails) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+    public Optional<Task> updateTask(Long userId, Long id, Task taskDetails) {
+        Optional<Task> found = taskRepository.findByIdAndUserId(id, userId);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        Task task = found.get();
+        checkVersion(task.getVersion(), taskDetails.getVersion(), id);
+        User previousUser = task.getUser();
+        Set<Long> userIds = new HashSet<>();
+        userIds.add(task.getUser().getId());
+        TaskStatsDelta delta = new TaskStatsDelta();
+        delta.remove(task.getUser().getId(), task.getStatus(), task.getDeadline());
         task.setTitle(taskDetails.getTitle());
         task.setDescription(taskDetails.getDescription());
         task.setDeadline(taskDetails.getDeadline());
         task.setStatus(taskDetails.getStatus());
-        task.setUser(taskDetails.getUser());
-        return taskRepository.save(task);
+        if (taskDetails.getUser() != null) {
+            task.setUser(taskDetails.getUser());
+            userIds.add(taskDetails.getUser().getId());
+        }
+        // flush внутри метода, чтобы вернуть уже увеличенную версию
+        Task updated = taskRepository.saveAndFlush(task);
+        if (!previousUser.getId().equals(updated.getUser().getId())) {
+            // У прежнего владельца задача пропадает из списка так же, как при удалении
+            entityManager.persist(new TaskTombstone(id, previousUser));
+        }
+        taskRepository.incrementChangeCounters(userIds);
+        delta.add(updated.getUser().getId(), updated.getStatus(), updated.getDeadline());
+        taskRepository.applyStatsDelta(delta);
+        reminderService.onTaskSaved(updated);
+        return Optional.of(updated);
+    }
+
+    @Transactional
+    public int transitionStatus(TaskFilter filter, TaskStatus targetStatus) {
+        return transitionStatusReturningIds(filter, targetStatus).size();
     }
 
     @Transactional
-    public void deleteTask(Long id) {
-        taskRepository.deleteById(id);
+    public List<Long> transitionStatusReturningIds(TaskFilter filter, TaskStatus targetStatus) {
+        List<TaskDeadline> changed = taskRepository.updateStatusReturningDeadlines(filter, targetStatus);
+        // Переоткрытые задачи снова получают напоминания, закрытые их теряют
+        reminderService.onStatusChanged(changed, targetStatus);
+        return changed.stream()
+                .map(TaskDeadline::getId)
+                .toList();
+    }
+
+    /**
+     * Удаляет задачу пользователя, если её версия совпадает с ожидаемой (null — без проверки).
+     * false, если у пользователя нет такой задачи.
+     */
+    @Transactional
+    public boolean deleteTask(Long userId, Long id, Long expectedVersion) {
+        Optional<Task> found = taskRepository.findByIdAndUserId(id, userId);
+        found.ifPresent(task -> {
+            checkVersion(task.getVersion(), expectedVersion, id);
+            taskRepository.delete(task);
+            entityManager.persist(new TaskTombstone(id, task.getUser()));
+            taskRepository.incrementChangeCounters(List.of(task.getUser().getId()));
+            TaskStatsDelta delta = new TaskStatsDelta();
+            delta.remove(task.getUser().getId(), task.getStatus(), task.getDeadline());
+            taskRepository.applyStatsDelta(delta);
+            reminderService.onTaskDeleted(id);
+        });
+        return found.isPresent();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> getTaskVersion(Long userId, Long id) {
+        return taskRepository.findVersionByIdAndUserId(id, userId);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> getTaskListVersion(Long userId) {
+        return taskRepository.findListVersionByUserId(userId);
+    }
+
+    /**
+     * Строки task_stats пользователя; статусы без задач могут отсутствовать.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskStats> getStats(Long userId) {
+        return taskRepository.findStatsByUserId(userId);
+    }
+
+    /**
+     * Изменения задач пользователя после позиции {@code since}, не больше {@code limit} событий.
+     * Без {@code since} отдаются все текущие задачи. Если задача менялась несколько раз в пределах страницы,
+     * остаётся только последнее событие.
+     */
+    @Transactional(readOnly = true)
+    public TaskChanges findChanges(Long userId, TaskSyncCursor since, int limit) {
+        OffsetDateTime upTo = OffsetDateTime.now().minus(syncSafetyWindow);
+        OffsetDateTime afterTime = since == null
+                ? OffsetDateTime.ofInstant(Instant.EPOCH, ZoneOffset.UTC)
+                : since.getTime();
+        Long afterId = since == null ? 0L : since.getId();
+        List<Task> tasks = taskRepository.findChangedSince(userId, afterTime, afterId, upTo, Limit.of(limit + 1));
+        // Новому клиенту удалённое не интересно: у него ещё нет этих задач
+        List<TaskTombstone> tombstones = since == null ? List.of()
+                : taskRepository.findTombstonesSince(userId, afterTime, afterId, upTo, Limit.of(limit + 1));
+
+        // Обе выборки упорядочены по (время, id задачи): сливаем их и берём первые limit событий
+        Map<Long, Task> events = new LinkedHashMap<>();
+        TaskSyncCursor last = null;
+        int i = 0;
+        int j = 0;
+        while (i + j < limit && (i < tasks.size() || j < tombstones.size())) {
+            if (j == tombstones.size() || (i < tasks.size()
+                    && compareEvents(tasks.get(i).getUpdatedAt(), tasks.get(i).getId(),
+                    tombstones.get(j).getDeletedAt(), tombstones.get(j).getTaskId()) <= 0)) {
+                Task task = tasks.get(i++);
+                events.remove(task.getId());
+                events.put(task.getId(), task);
+                last = new TaskSyncCursor(task.getUpdatedAt(), task.getId());
+            } else {
+                TaskTombstone tombstone = tombstones.get(j++);
+                events.remove(tombstone.getTaskId());
+                events.put(tombstone.getTaskId(), null);
+                last = new TaskSyncCursor(tombstone.getDeletedAt(), tombstone.getTaskId());
+            }
+        }
+        boolean hasMore = i < tasks.size() || j < tombstones.size();
+
+        List<Task> changed = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        events.forEach((id, task) -> {
+            if (task == null) {
+                deleted.add(id);
+            } else {
+                changed.add(task);
+            }
+        });
+        // Всё до upTo выдано, поэтому следующий запрос можно начинать с него
+        TaskSyncCursor next = hasMore ? last
+                : since != null && since.getTime().isAfter(upTo) ? since : new TaskSyncCursor(upTo, 0L);
+        return new TaskChanges(changed, deleted, next, hasMore);
+    }
+
+    /**
+     * Отметки об удалении старше срока хранения уже удалены, и по такой позиции ленту не восстановить.
+     */
+    public boolean isSyncCursorExpired(TaskSyncCursor since) {
+        return since != null && since.getTime().isBefore(OffsetDateTime.now().minus(tombstoneRetention));
     }
 
+    @Transactional(readOnly = true)
     public List<Task> findByUserId(Long userId) {
         return taskRepository.findByUserId(userId);
     }
+
+    @Transactional(readOnly = true)
+    public List<Task> findPage(TaskFilter filter, TaskCursor after, int limit) {
+        LocalDate afterDeadline = after == null ? null : after.getDeadline();
+        Long afterId = after == null ? null : after.getId();
+        List<Task> tasks = taskRepository.findPage(filter, afterDeadline, afterId, limit);
+        if (!filter.isIncludeArchived() || !mayBeArchived(filter)) {
+            return tasks;
+        }
+        // Обе выборки упорядочены по (deadline, id), а id не пересекаются,
+        // поэтому достаточно слить их и взять первые limit записей
+        List<Task> archived = taskRepository.findArchivedPage(filter, afterDeadline, afterId, limit).stream()
+                .map(TaskService::fromArchive)
+                .toList();
+        return Stream.concat(tasks.stream(), archived.stream())
+                .sorted(PAGE_ORDER)
+                .limit(limit)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<TaskSearchHit> search(String query, Long userId, TaskSearchCursor after, int limit) {
+        if (after == null) {
+            return taskRepository.search(query, userId, null, null, limit);
+        }
+        return taskRepository.search(query, userId, after.getRank(), after.getId(), limit);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportTasksByUserId(Long userId, Consumer<Task> consumer) {
+        try (Stream<Task> tasks = taskRepository.streamByUserId(userId)) {
+            forEachDetached(tasks, consumer);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportAllTasks(Consumer<Task> consumer) {
+        try (Stream<Task> tasks = taskRepository.streamAll()) {
+            forEachDetached(tasks, consumer);
+        }
+    }
+
+    // Периодически очищаем контекст, иначе все прочитанные задачи останутся в памяти до конца выгрузки
+    private void forEachDetached(Stream<Task> tasks, Consumer<Task> consumer) {
+        Iterator<Task> iterator = tasks.iterator();
+        int count = 0;
+        while (iterator.hasNext()) {
+            consumer.accept(iterator.next());
+            if (++count % exportClearInterval == 0) {
+                entityManager.clear();
+            }
+        }
+    }
+
+    // В архив попадают только завершённые задачи
+    private static boolean mayBeArchived(TaskFilter filter) {
+        if (filter.isOverdue()) {
+            return false;
+        }
+        return filter.getStatuses() == null || filter.getStatuses().isEmpty()
+                || filter.getStatuses().contains(TaskStatus.DONE);
+    }
+
+    // Отдельный экземпляр Task, не связанный с контекстом: сохранять его нельзя
+    private static Task fromArchive(ArchivedTask archived) {
+        Task task = new Task(archived.getId(), archived.getTitle(), archived.getDescription(),
+                archived.getDeadline(), archived.getStatus(), archived.getUser());
+        task.setVersion(archived.getVersion());
+        task.setCreatedAt(archived.getCreatedAt());
+        task.setUpdatedAt(archived.getUpdatedAt());
+        return task;
+    }
+
+    private static int compareEvents(OffsetDateTime time1, Long id1, OffsetDateTime time2, Long id2) {
+        int byTime = time1.toInstant().compareTo(time2.toInstant());
+        return byTime != 0 ? byTime : id1.compareTo(id2);
+    }
+
+    private static void checkVersion(Long current, Long expected, Long id) {
+        if (expected != null && !expected.equals(current)) {
+            throw new ObjectOptimisticLockingFailureException(Task.class, id);
+        }
+    }
 }
@@ -0,0 +1,77 @@
+package org.example.projectfinalspring.services;
+
+import org.example.projectfinalspring.repositories.TaskRepository;
+import org.example.projectfinalspring.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Сверяет task_stats с таблицами задач. Счётчики поддерживаются инкрементально, но число просроченных
+ * меняется со сменой даты без всяких записей, поэтому пересчёт запускается сразу после полуночи.
+ */
+@Component
+public class TaskStatsReconciliationJob {
+    private static final Logger log = LoggerFactory.getLogger(TaskStatsReconciliationJob.class);
+
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int chunkSize;
+
+    public TaskStatsReconciliationJob(TaskRepository taskRepository,
+                                      UserRepository userRepository,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${tasks.stats.reconcile-enabled:true}") boolean enabled,
+                                      @Value("${tasks.stats.reconcile-chunk-size:500}") int chunkSize) {
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${tasks.stats.reconcile-cron:0 5 0 * * *}")
+    public void run() {
+        if (enabled) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Возвращает число исправленных строк статистики.
+     */
+    public int reconcile() {
+        int fixed = 0;
+        long afterId = 0;
+        List<Long> userIds;
+        do {
+            // Пользователи читаются в той же короткой транзакции, что и пересчёт их пачки
+            long from = afterId;
+            int[] chunkFixed = new int[1];
+            userIds = transactionTemplate.execute(status -> {
+                List<Long> ids = userRepository.findIdsAfter(from, Limit.of(chunkSize));
+                chunkFixed[0] = taskRepository.reconcileStats(ids);
+                return ids;
+            });
+            if (userIds == null || userIds.isEmpty()) {
+                break;
+            }
+            fixed += chunkFixed[0];
+            afterId = userIds.get(userIds.size() - 1);
+        } while (userIds.size() == chunkSize);
+
+        if (fixed > 0) {
+            log.info("Reconciled {} task stats rows", fixed);
+        }
+        return fixed;
+    }
+}
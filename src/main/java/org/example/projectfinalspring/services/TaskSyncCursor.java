@@ -0,0 +1,53 @@
+package org.example.projectfinalspring.services;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция в ленте изменений задач, упорядоченной по (время изменения, id задачи).
+ * Клиенту отдаётся в виде непрозрачной строки.
+ */
+public final class TaskSyncCursor {
+
+    private final OffsetDateTime time;
+    private final Long id;
+
+    public TaskSyncCursor(OffsetDateTime time, Long id) {
+        this.time = time;
+        this.id = id;
+    }
+
+    public static TaskSyncCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            // В записи времени тоже есть двоеточия, поэтому id отделяется последним
+            int separator = raw.lastIndexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new TaskSyncCursor(
+                    OffsetDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = time + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public OffsetDateTime getTime() {
+        return time;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
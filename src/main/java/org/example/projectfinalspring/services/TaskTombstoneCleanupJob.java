@@ -0,0 +1,63 @@
+package org.example.projectfinalspring.services;
+
+import org.example.projectfinalspring.repositories.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+/**
+ * Удаляет отметки об удалении задач старше срока хранения. Клиенты с более старой позицией
+ * получают от ленты изменений 410 и загружают список заново.
+ */
+@Component
+public class TaskTombstoneCleanupJob {
+    private static final Logger log = LoggerFactory.getLogger(TaskTombstoneCleanupJob.class);
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int chunkSize;
+
+    public TaskTombstoneCleanupJob(TaskRepository taskRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${tasks.sync.tombstone-retention:P30D}") Duration retention,
+                                   @Value("${tasks.sync.cleanup-chunk-size:5000}") int chunkSize) {
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.sync.cleanup-interval:PT1H}",
+            initialDelayString = "${tasks.sync.cleanup-initial-delay:PT10M}")
+    public void run() {
+        cleanup();
+    }
+
+    /**
+     * Возвращает число удалённых отметок.
+     */
+    public int cleanup() {
+        OffsetDateTime threshold = OffsetDateTime.now().minus(retention);
+        int total = 0;
+        int deleted;
+        do {
+            Integer chunk = transactionTemplate.execute(
+                    status -> taskRepository.deleteTombstonesBefore(threshold, chunkSize));
+            deleted = chunk == null ? 0 : chunk;
+            total += deleted;
+        } while (deleted == chunkSize);
+
+        if (total > 0) {
+            log.info("Deleted {} task tombstones older than {}", total, threshold);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,290 @@
+package org.example.projectfinalspring.services;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Иерархическое колесо таймеров: 4 уровня по 64 ячейки, тик нижнего уровня задаёт вызывающий.
+ * Записи дальше 2^24 тиков лежат на верхнем уровне и переносятся ниже по мере приближения срока.
+ * <p>
+ * Записи хранятся в параллельных массивах примитивов, а индекс id → запись — в открытой хеш-таблице,
+ * поэтому одна отложенная запись занимает порядка 50 байт без объектов на куче. Класс не потокобезопасен.
+ */
+public class TimingWheel {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (BITS * LEVELS)) - 1;
+    private static final int NIL = -1;
+
+    private final int[] heads = new int[LEVELS * SLOTS];
+    private final LongIntMap index;
+
+    private long[] ids;
+    private long[] expiries;
+    private int[] next;
+    private int[] prev;
+    private int[] buckets;
+    private int allocated;
+    private int free = NIL;
+    private int size;
+    private long base;
+
+    public TimingWheel(long startTick, int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 16);
+        Arrays.fill(heads, NIL);
+        this.index = new LongIntMap(capacity);
+        this.ids = new long[capacity];
+        this.expiries = new long[capacity];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.buckets = new int[capacity];
+        this.base = startTick;
+    }
+
+    /**
+     * Ставит или переносит запись. Срок в прошлом сработает на ближайшем {@link #advanceTo}.
+     */
+    public void schedule(long id, long expiryTick) {
+        int entry = index.get(id);
+        if (entry == NIL) {
+            entry = allocate();
+            ids[entry] = id;
+            index.put(id, entry);
+            size++;
+        } else {
+            unlink(entry);
+        }
+        expiries[entry] = expiryTick;
+        link(entry);
+    }
+
+    /**
+     * Ставит запись, только если её ещё нет.
+     */
+    public boolean scheduleIfAbsent(long id, long expiryTick) {
+        if (index.get(id) != NIL) {
+            return false;
+        }
+        schedule(id, expiryTick);
+        return true;
+    }
+
+    public boolean cancel(long id) {
+        int entry = index.remove(id);
+        if (entry == NIL) {
+            return false;
+        }
+        unlink(entry);
+        release(entry);
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Тик, который будет обработан следующим.
+     */
+    public long currentTick() {
+        return base;
+    }
+
+    /**
+     * Проходит все тики до {@code tick} включительно и отдаёт id сработавших записей.
+     */
+    public void advanceTo(long tick, LongConsumer expired) {
+        while (base <= tick) {
+            int slot = (int) (base & MASK);
+            if (slot == 0) {
+                // Нижний уровень прошёл круг: спускаем ячейку следующего уровня, а если и он прошёл круг — выше
+                for (int level = 1; level < LEVELS; level++) {
+                    int levelSlot = (int) ((base >> (BITS * level)) & MASK);
+                    cascade(level * SLOTS + levelSlot);
+                    if (levelSlot != 0) {
+                        break;
+                    }
+                }
+            }
+            int entry = heads[slot];
+            heads[slot] = NIL;
+            while (entry != NIL) {
+                int following = next[entry];
+                long id = ids[entry];
+                index.remove(id);
+                release(entry);
+                size--;
+                expired.accept(id);
+                entry = following;
+            }
+            base++;
+        }
+    }
+
+    private void cascade(int bucket) {
+        int entry = heads[bucket];
+        heads[bucket] = NIL;
+        while (entry != NIL) {
+            int following = next[entry];
+            link(entry);
+            entry = following;
+        }
+    }
+
+    private int bucketFor(long expiry) {
+        long delta = expiry - base;
+        if (delta < 0) {
+            return (int) (base & MASK);
+        }
+        if (delta > MAX_DELTA) {
+            delta = MAX_DELTA;
+            expiry = base + MAX_DELTA;
+        }
+        int level = 0;
+        while (delta >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        return level * SLOTS + (int) ((expiry >> (BITS * level)) & MASK);
+    }
+
+    private void link(int entry) {
+        int bucket = bucketFor(expiries[entry]);
+        int head = heads[bucket];
+        buckets[entry] = bucket;
+        prev[entry] = NIL;
+        next[entry] = head;
+        if (head != NIL) {
+            prev[head] = entry;
+        }
+        heads[bucket] = entry;
+    }
+
+    private void unlink(int entry) {
+        int before = prev[entry];
+        int after = next[entry];
+        if (before == NIL) {
+            heads[buckets[entry]] = after;
+        } else {
+            next[before] = after;
+        }
+        if (after != NIL) {
+            prev[after] = before;
+        }
+    }
+
+    private int allocate() {
+        if (free != NIL) {
+            int entry = free;
+            free = next[entry];
+            return entry;
+        }
+        if (allocated == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            expiries = Arrays.copyOf(expiries, capacity);
+            next = Arrays.copyOf(next, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            buckets = Arrays.copyOf(buckets, capacity);
+        }
+        return allocated++;
+    }
+
+    private void release(int entry) {
+        next[entry] = free;
+        free = entry;
+    }
+
+    /**
+     * Хеш-таблица long → int с линейным пробированием; 0 зарезервирован под пустую ячейку.
+     */
+    private static final class LongIntMap {
+
+        private long[] keys;
+        private int[] values;
+        private int size;
+        private int mask;
+
+        LongIntMap(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(expected * 2 - 1, 16)) << 1;
+            keys = new long[capacity];
+            values = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        int get(long key) {
+            for (int i = slot(key); ; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+                if (keys[i] == 0) {
+                    return NIL;
+                }
+            }
+        }
+
+        void put(long key, int value) {
+            if (key == 0) {
+                throw new IllegalArgumentException("Key 0 is reserved");
+            }
+            if ((size + 1) * 3 > keys.length * 2) {
+                resize();
+            }
+            int i = slot(key);
+            while (keys[i] != 0 && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == 0) {
+                size++;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        int remove(long key) {
+            int i = slot(key);
+            while (keys[i] != key) {
+                if (keys[i] == 0) {
+                    return NIL;
+                }
+                i = (i + 1) & mask;
+            }
+            int removed = values[i];
+            size--;
+            // Сдвигаем следующие записи цепочки назад, чтобы поиск не остановился на образовавшейся дыре
+            int gap = i;
+            for (int j = (gap + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+                int home = slot(keys[j]);
+                if (((j - home) & mask) >= ((j - gap) & mask)) {
+                    keys[gap] = keys[j];
+                    values[gap] = values[j];
+                    gap = j;
+                }
+            }
+            keys[gap] = 0;
+            return removed;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            mask = keys.length - 1;
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private int slot(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
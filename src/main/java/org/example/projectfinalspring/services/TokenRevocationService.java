@@ -0,0 +1,159 @@
+package org.example.projectfinalspring.services;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.projectfinalspring.repositories.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Отзыв JWT до истечения срока. Отозванные jti лежат в таблице revoked_tokens, а на каждом узле —
+ * фильтр Блума над ними: для большинства запросов проверка отвечает «не отозван» без обращения к базе,
+ * точный запрос делается только при срабатывании фильтра.
+ * <p>
+ * Фильтр пересобирается из базы раз в refresh-interval, заодно удаляются записи об истёкших токенах.
+ * Отзыв на этом узле виден сразу, на других — после их следующей пересборки. Пока фильтр не загружен,
+ * каждая проверка идёт в базу. Чтения идут на основную базу: отставание реплики пропустило бы свежий отзыв.
+ */
+@Service
+public class TokenRevocationService implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final double falsePositiveRate;
+    private final int minCapacity;
+    private final int cleanupChunkSize;
+
+    private final Object lock = new Object();
+    private volatile BloomFilter filter;
+    // Отзывы, сделанные во время пересборки; под lock
+    private Set<String> pending;
+
+    private final LongAdder exactChecks = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                                  @Value("${jwt.revocation.min-capacity:10000}") int minCapacity,
+                                  @Value("${jwt.revocation.cleanup-chunk-size:5000}") int cleanupChunkSize) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.falsePositiveRate = falsePositiveRate;
+        this.minCapacity = minCapacity;
+        this.cleanupChunkSize = cleanupChunkSize;
+    }
+
+    public void revoke(String jti, Long userId, Instant expiresAt) {
+        if (!expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> revokedTokenRepository.insertIfAbsent(
+                jti, userId, expiresAt.atOffset(ZoneOffset.UTC)));
+        synchronized (lock) {
+            if (filter != null) {
+                filter.put(jti);
+            }
+            if (pending != null) {
+                pending.add(jti);
+            }
+        }
+    }
+
+    public boolean isRevoked(String jti) {
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(jti)) {
+            return false;
+        }
+        exactChecks.increment();
+        boolean revoked = Boolean.TRUE.equals(
+                transactionTemplate.execute(status -> revokedTokenRepository.existsById(jti)));
+        if (!revoked && current != null) {
+            falsePositives.increment();
+        }
+        return revoked;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval:PT30S}")
+    public void run() {
+        OffsetDateTime now = OffsetDateTime.now();
+        cleanup(now);
+        refresh(now);
+    }
+
+    /**
+     * Пересобирает фильтр по неистёкшим отзывам. Отзывы, записанные на этом узле во время чтения,
+     * добавляются в новый фильтр перед подменой, поэтому не теряются.
+     */
+    void refresh(OffsetDateTime now) {
+        synchronized (lock) {
+            pending = new HashSet<>();
+        }
+        try {
+            BloomFilter next = transactionTemplate.execute(status -> {
+                long active = revokedTokenRepository.countActive(now);
+                // Запас вдвое: до следующей пересборки фильтр пополняется локальными отзывами
+                BloomFilter created = BloomFilter.create(Math.max(active * 2, minCapacity), falsePositiveRate);
+                try (Stream<String> ids = revokedTokenRepository.streamActiveIds(now)) {
+                    ids.forEach(created::put);
+                }
+                return created;
+            });
+            synchronized (lock) {
+                pending.forEach(next::put);
+                filter = next;
+            }
+        } finally {
+            synchronized (lock) {
+                pending = null;
+            }
+        }
+    }
+
+    private void cleanup(OffsetDateTime now) {
+        int total = 0;
+        int deleted;
+        do {
+            Integer chunk = transactionTemplate.execute(
+                    status -> revokedTokenRepository.deleteExpiredBefore(now, cleanupChunkSize));
+            deleted = chunk == null ? 0 : chunk;
+            total += deleted;
+        } while (deleted == cleanupChunkSize);
+
+        if (total > 0) {
+            log.debug("Deleted {} expired token revocations", total);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("auth.revocation.exact.checks", exactChecks, LongAdder::sum)
+                .description("Revocation checks that went to the database")
+                .register(registry);
+        FunctionCounter.builder("auth.revocation.false.positives", falsePositives, LongAdder::sum)
+                .description("Bloom filter hits for tokens that were not revoked")
+                .register(registry);
+        Gauge.builder("auth.revocation.bloom.bits", this, service -> {
+                    BloomFilter current = service.filter;
+                    return current == null ? 0 : current.bitSize();
+                })
+                .description("Size of the revoked token Bloom filter")
+                .register(registry);
+    }
+}
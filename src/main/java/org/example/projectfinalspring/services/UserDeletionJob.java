@@ -0,0 +1,84 @@
+package org.example.projectfinalspring.services;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Состояние фонового удаления пользователя. Хранится в памяти узла, принявшего запрос.
+ */
+public class UserDeletionJob {
+
+    public enum Status {
+        PENDING, RUNNING, DONE, FAILED
+    }
+
+    private final String id;
+    private final Long userId;
+    private final OffsetDateTime submittedAt = OffsetDateTime.now();
+    private final AtomicLong deletedTasks = new AtomicLong();
+    private volatile Status status = Status.PENDING;
+    private volatile OffsetDateTime finishedAt;
+    private volatile String error;
+
+    public UserDeletionJob(String id, Long userId) {
+        this.id = id;
+        this.userId = userId;
+    }
+
+    void started() {
+        status = Status.RUNNING;
+    }
+
+    void tasksDeleted(long count) {
+        deletedTasks.addAndGet(count);
+    }
+
+    void finished() {
+        finishedAt = OffsetDateTime.now();
+        status = Status.DONE;
+    }
+
+    void failed(String message) {
+        error = message;
+        finishedAt = OffsetDateTime.now();
+        status = Status.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getDeletedTasks() {
+        return deletedTasks.get();
+    }
+
+    public OffsetDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public OffsetDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "UserDeletionJob{" +
+                "id='" + id + '\'' +
+                ", userId=" + userId +
+                ", status=" + status +
+                ", deletedTasks=" + deletedTasks +
+                '}';
+    }
+}
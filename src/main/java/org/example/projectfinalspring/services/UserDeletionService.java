@@ -0,0 +1,189 @@
+package org.example.projectfinalspring.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.example.projectfinalspring.entities.User;
+import org.example.projectfinalspring.repositories.TaskRepository;
+import org.example.projectfinalspring.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Удаление пользователя вместе с задачами массовыми DELETE. Сначала под блокировкой строки проверяется
+ * ожидаемая версия пользователя и увеличивается на единицу: конфликт обнаруживается до удаления первой задачи,
+ * а запись с прежней версией после этого уже не пройдёт. Задачи удаляются пачками, каждая в своей
+ * короткой транзакции, поэтому блокировки не держатся на всё время удаления. В последней транзакции
+ * строка пользователя блокируется снова, версия сверяется с полученной в начале, дочищаются задачи,
+ * созданные за это время, и удаляется сам пользователь; архив, статистика и отметки об удалении
+ * уходят каскадом по внешним ключам.
+ */
+@Service
+public class UserDeletionService {
+    private static final Logger log = LoggerFactory.getLogger(UserDeletionService.class);
+
+    private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
+    private final UsernameCache usernameCache;
+    private final DeadlineReminderService reminderService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, UserDeletionJob> jobs;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public UserDeletionService(UserRepository userRepository,
+                               TaskRepository taskRepository,
+                               UsernameCache usernameCache,
+                               DeadlineReminderService reminderService,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${users.deletion.chunk-size:5000}") int chunkSize,
+                               @Value("${users.deletion.threads:1}") int threads,
+                               @Value("${users.deletion.queue-capacity:100}") int queueCapacity,
+                               @Value("${users.deletion.job-ttl:PT1H}") Duration jobTtl) {
+        this.userRepository = userRepository;
+        this.taskRepository = taskRepository;
+        this.usernameCache = usernameCache;
+        this.reminderService = reminderService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("user-deletion-"));
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(jobTtl)
+                .build();
+    }
+
+    /**
+     * Удаляет пользователя в вызывающем потоке. Отсутствующий пользователь — не ошибка.
+     */
+    public void delete(Long id, Long expectedVersion) {
+        Long version = claim(id, expectedVersion);
+        if (version != null) {
+            deleteAll(id, version, null);
+        }
+    }
+
+    /**
+     * Проверяет версию сразу, а удаление ставит в очередь. Если очередь заполнена — RejectedExecutionException.
+     */
+    public UserDeletionJob submit(Long id, Long expectedVersion) {
+        Long version = claim(id, expectedVersion);
+        if (version == null) {
+            throw new RuntimeException("User not found");
+        }
+        UserDeletionJob job = new UserDeletionJob(UUID.randomUUID().toString(), id);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, version));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.getId());
+            throw e;
+        }
+        return job;
+    }
+
+    public Optional<UserDeletionJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void run(UserDeletionJob job, Long version) {
+        job.started();
+        try {
+            deleteAll(job.getUserId(), version, job);
+            job.finished();
+        } catch (RuntimeException e) {
+            log.error("Deletion of user {} failed", job.getUserId(), e);
+            job.failed(e.getMessage());
+        }
+    }
+
+    /**
+     * Сверяет версию под блокировкой строки и увеличивает её. Возвращает новую версию
+     * или null, если пользователя нет.
+     */
+    private Long claim(Long id, Long expectedVersion) {
+        return transactionTemplate.execute(status -> {
+            User user = entityManager.find(User.class, id, LockModeType.PESSIMISTIC_WRITE);
+            if (user == null) {
+                return null;
+            }
+            checkVersion(user, expectedVersion);
+            entityManager.lock(user, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+            return user.getVersion();
+        });
+    }
+
+    private static void checkVersion(User user, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(User.class, user.getId());
+        }
+    }
+
+    private void deleteAll(Long id, Long version, UserDeletionJob job) {
+        int deleted;
+        do {
+            List<Long> ids = transactionTemplate.execute(status -> {
+                List<Long> chunk = taskRepository.deleteByUserId(id, chunkSize);
+                reminderService.onTasksDeleted(chunk);
+                return chunk;
+            });
+            deleted = ids == null ? 0 : ids.size();
+            if (job != null) {
+                job.tasksDeleted(deleted);
+            }
+        } while (deleted == chunkSize);
+        do {
+            Integer archived = transactionTemplate.execute(
+                    status -> taskRepository.deleteArchivedByUserId(id, chunkSize));
+            deleted = archived == null ? 0 : archived;
+        } while (deleted == chunkSize);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Блокировка строки не даёт параллельно добавить пользователю задачу: вставка ждёт её по внешнему ключу
+            User user = entityManager.find(User.class, id, LockModeType.PESSIMISTIC_WRITE);
+            if (user == null) {
+                return;
+            }
+            // Пользователя изменили, пока удалялись задачи
+            checkVersion(user, version);
+            int leftover;
+            do {
+                List<Long> ids = taskRepository.deleteByUserId(id, chunkSize);
+                reminderService.onTasksDeleted(ids);
+                leftover = ids.size();
+                if (job != null) {
+                    job.tasksDeleted(leftover);
+                }
+            } while (leftover == chunkSize);
+            taskRepository.deleteChangeCounter(id);
+            usernameCache.evict(user.getUsername());
+            userRepository.delete(user);
+        });
+    }
+}
@@ -1,59 +1,153 @@
 package org.example.projectfinalspring.services;
 
 import org.example.projectfinalspring.entities.User;
+import org.example.projectfinalspring.repositories.UserCredentials;
 import org.example.projectfinalspring.repositories.UserRepository;
+import org.example.projectfinalspring.repositories.UserSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class UserService {
 
     private UserRepository userRepository;
+    private UsernameCache usernameCache;
+    private UserDeletionService userDeletionService;
 
-    public UserService(UserRepository userRepository) {
+    // Без аннотации Spring выбрал бы конструктор без параметров и оставил зависимости пустыми
+    @Autowired
+    public UserService(UserRepository userRepository, UsernameCache usernameCache,
+                       UserDeletionService userDeletionService) {
         this.userRepository = userRepository;
+        this.usernameCache = usernameCache;
+        this.userDeletionService = userDeletionService;
     }
 
     public UserService() {
     }
 
+    @Transactional(readOnly = true)
     public User getUserById(Long id) {
         return userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
     }
 
+    @Transactional(readOnly = true)
+    public UserSummary getUserSummaryById(Long id) {
+        return userRepository.findSummaryById(id).orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    @Transactional(readOnly = true)
+    public User getUserWithTasks(Long id) {
+        return userRepository.findWithTasksById(id).orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public List<UserSummary> getAllUserSummaries() {
+        return userRepository.findAllProjectedBy();
+    }
+
     @Transactional
     public void saveUser(User user) {
         userRepository.save(user);
+        usernameCache.evict(user.getUsername());
     }
 
     @Transactional
     public User createUser(User user) {
-        return userRepository.save(user);
+        User created = userRepository.save(user);
+        // Имя могло быть закэшировано как отсутствующее
+        usernameCache.evict(created.getUsername());
+        return created;
     }
 
     @Transactional
     public User updateUser(Long id, User userDetails) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        checkVersion(user, userDetails.getVersion());
+        usernameCache.evict(user.getUsername(), userDetails.getUsername());
         user.setUsername(userDetails.getUsername());
         user.setEmail(userDetails.getEmail());
-        user.setPassword(userDetails.getPassword());
-        user.setRole(userDetails.getRole());
-        return userRepository.save(user);
+        // пароль и роль меняются только если переданы явно
+        if (userDetails.getPassword() != null) {
+            user.setPassword(userDetails.getPassword());
+        }
+        if (userDetails.getRole() != null) {
+            user.setRole(userDetails.getRole());
+        }
+        return userRepository.saveAndFlush(user);
     }
 
+    /**
+     * Заменяет хеш пароля, пересчитанный с новой стоимостью BCrypt. Если пароль успели сменить
+     * за время хеширования, ничего не делает и возвращает false.
+     */
     @Transactional
+    public boolean upgradePasswordHash(Long id, String currentHash, String newHash) {
+        User user = userRepository.findById(id).orElse(null);
+        if (user == null || !currentHash.equals(user.getPassword())) {
+            return false;
+        }
+        user.setPassword(newHash);
+        // Хеш для входа берётся из кэша имён
+        usernameCache.evict(user.getUsername());
+        return true;
+    }
+
     public void deleteUser(Long id) {
-        userRepository.deleteById(id);
+        deleteUser(id, null);
+    }
+
+    /**
+     * Удаляет пользователя, если его версия совпадает с ожидаемой (null — без проверки).
+     * Задачи удаляются массовыми DELETE в нескольких транзакциях, поэтому метод не транзакционный.
+     */
+    public void deleteUser(Long id, Long expectedVersion) {
+        userDeletionService.delete(id, expectedVersion);
+    }
+
+    /**
+     * То же, что {@link #deleteUser(Long, Long)}, но в фоне; ход удаления — {@link #getDeletionJob(String)}.
+     */
+    public UserDeletionJob startUserDeletion(Long id, Long expectedVersion) {
+        return userDeletionService.submit(id, expectedVersion);
+    }
+
+    public Optional<UserDeletionJob> getDeletionJob(String jobId) {
+        return userDeletionService.getJob(jobId);
     }
 
+    @Transactional(readOnly = true)
+    public Optional<Long> getUserVersion(Long id) {
+        return userRepository.findVersionById(id);
+    }
+
+    @Transactional(readOnly = true)
     public User findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
-}
\ No newline at end of file
+
+    public UserSummary findSummaryByUsername(String username) {
+        return usernameCache.get(username).orElse(null);
+    }
+
+    public UserCredentials findCredentialsByUsername(String username) {
+        return usernameCache.get(username).orElse(null);
+    }
+
+    private static void checkVersion(User user, Long expected) {
+        if (expected != null && !expected.equals(user.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(User.class, user.getId());
+        }
+    }
+}
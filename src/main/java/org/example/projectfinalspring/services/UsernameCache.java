@@ -0,0 +1,68 @@
+package org.example.projectfinalspring.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.projectfinalspring.repositories.UserAccount;
+import org.example.projectfinalspring.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Кэш поиска пользователя по имени для входа и {@code GET /api/users/username/{username}}.
+ * Отсутствующие имена тоже кэшируются, но на короткое время.
+ */
+@Component
+public class UsernameCache implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final Cache<String, Optional<UserAccount>> cache;
+
+    public UsernameCache(UserRepository userRepository,
+                         @Value("${users.username-cache.maximum-size:10000}") long maximumSize,
+                         @Value("${users.username-cache.ttl:PT5M}") Duration ttl,
+                         @Value("${users.username-cache.negative-ttl:PT30S}") Duration negativeTtl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.creating((String username, Optional<UserAccount> account) ->
+                        account.isPresent() ? ttl : negativeTtl))
+                .recordStats()
+                .build();
+    }
+
+    public Optional<UserAccount> get(String username) {
+        return cache.get(username, userRepository::findAccountByUsername);
+    }
+
+    /**
+     * Удаляет записи сразу и повторно после завершения транзакции: иначе параллельный запрос
+     * успел бы положить в кэш значение, прочитанное до фиксации изменений.
+     */
+    public void evict(String... usernames) {
+        List<String> keys = List.of(usernames);
+        cache.invalidateAll(keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll(keys);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "users.byUsername");
+    }
+}
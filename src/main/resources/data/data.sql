@@ -1,8 +1,14 @@
+-- Выполняется при каждом запуске, поэтому вставляет только отсутствующие строки
 INSERT INTO users (username, email, password, role)
 VALUES ('john_doe', 'john@example.com', 'password123', 'USER'),
-       ('admin', 'admin@example.com', 'admin123', 'ADMIN');
+       ('admin', 'admin@example.com', 'admin123', 'ADMIN')
+ON CONFLICT DO NOTHING;
 
 
 INSERT INTO tasks (title, description, deadline, status, user_id)
-VALUES ('Complete homework', 'Finish math and science homework', '2023-12-01', 'PENDING', 1),
-       ('Fix server', 'Resolve critical issue on production server', '2023-11-25', 'IN_PROGRESS', 2);
\ No newline at end of file
+SELECT t.title, t.description, t.deadline, t.status, u.id
+FROM (VALUES ('Complete homework', 'Finish math and science homework', DATE '2023-12-01', 1, 'john_doe'),
+             ('Fix server', 'Resolve critical issue on production server', DATE '2023-11-25', 2, 'admin'))
+         AS t (title, description, deadline, status, username)
+JOIN users u ON u.username = t.username
+WHERE NOT EXISTS (SELECT 1 FROM tasks x WHERE x.user_id = u.id AND x.title = t.title);
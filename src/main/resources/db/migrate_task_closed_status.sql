@@ -0,0 +1,11 @@
+-- Завершённой считается задача в статусе DONE или CANCELLED (TaskStatus.isClosed): отменённые задачи
+-- больше не просрочены. Частичный индекс пересоздаётся с новым условием, счётчики просрочки
+-- отменённых задач обнуляются сразу, не дожидаясь ночной сверки.
+BEGIN;
+
+DROP INDEX IF EXISTS idx_tasks_user_open_deadline_id;
+CREATE INDEX idx_tasks_user_open_deadline_id ON tasks (user_id, deadline, id) WHERE status NOT IN (3, 4);
+
+UPDATE task_stats SET overdue_count = 0 WHERE status = 4 AND overdue_count <> 0;
+
+COMMIT;
@@ -0,0 +1,25 @@
+-- Перевод tasks.status из VARCHAR(20) в SMALLINT с кодами TaskStatus.
+-- Неизвестное значение превращается в NULL, и миграция падает на NOT NULL: такие строки нужно исправить вручную.
+BEGIN;
+
+DROP INDEX IF EXISTS idx_tasks_user_status_deadline_id;
+DROP INDEX IF EXISTS idx_tasks_user_open_deadline_id;
+
+ALTER TABLE tasks ALTER COLUMN status TYPE SMALLINT USING
+    CASE upper(trim(status))
+        WHEN 'NEW' THEN 0
+        WHEN 'PENDING' THEN 1
+        WHEN 'IN_PROGRESS' THEN 2
+        WHEN 'DONE' THEN 3
+        WHEN 'COMPLETED' THEN 3
+        WHEN 'CANCELLED' THEN 4
+    END;
+
+ALTER TABLE tasks ADD CONSTRAINT chk_tasks_status CHECK (status BETWEEN 0 AND 4);
+
+CREATE INDEX idx_tasks_user_status_deadline_id ON tasks (user_id, status, deadline, id);
+CREATE INDEX idx_tasks_user_open_deadline_id ON tasks (user_id, deadline, id) WHERE status <> 3;
+
+COMMIT;
+
+ANALYZE tasks;
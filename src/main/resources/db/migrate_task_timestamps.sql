@@ -0,0 +1,27 @@
+-- Колонки created_at/updated_at для ленты изменений и таблица отметок об удалении.
+-- Для существующих строк время изменения неизвестно, поэтому берётся момент миграции.
+BEGIN;
+
+ALTER TABLE tasks ADD COLUMN created_at TIMESTAMPTZ NOT NULL DEFAULT now();
+ALTER TABLE tasks ADD COLUMN updated_at TIMESTAMPTZ NOT NULL DEFAULT now();
+
+ALTER TABLE tasks_archive ADD COLUMN created_at TIMESTAMPTZ NOT NULL DEFAULT now();
+ALTER TABLE tasks_archive ADD COLUMN updated_at TIMESTAMPTZ NOT NULL DEFAULT now();
+
+CREATE TABLE task_tombstones (
+                       id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                       task_id BIGINT NOT NULL,
+                       user_id BIGINT NOT NULL,
+                       deleted_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+                       CONSTRAINT fk_task_tombstones_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_task_tombstones_user_deleted_task ON task_tombstones (user_id, deleted_at, task_id);
+CREATE INDEX idx_task_tombstones_deleted_at ON task_tombstones (deleted_at);
+
+COMMIT;
+
+-- Индекс строится без блокировки записи, поэтому вне транзакции
+CREATE INDEX CONCURRENTLY idx_tasks_user_updated_id ON tasks (user_id, updated_at, id);
+
+ANALYZE tasks;
@@ -1,17 +1,136 @@
-CREATE TABLE users (
-                       id BIGSERIAL PRIMARY KEY,
+-- Скрипт выполняется при каждом запуске (spring.sql.init.mode: always) и не трогает существующие объекты.
+-- Hibernate схему только проверяет (ddl-auto: validate); изменения существующих таблиц — в db/migrate_*.sql
+
+-- Шаг совпадает с allocationSize по умолчанию для User: Hibernate резервирует id блоками (pooled-lo)
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users (
+                       id BIGINT PRIMARY KEY DEFAULT nextval('users_seq'),
                        username VARCHAR(50) UNIQUE NOT NULL,
                        email VARCHAR(255) UNIQUE NOT NULL,
                        password VARCHAR(255) NOT NULL,
-                       role VARCHAR(20) NOT NULL
+                       role VARCHAR(20) NOT NULL,
+                       version BIGINT NOT NULL DEFAULT 0
 );
 
-CREATE TABLE tasks (
-                       id BIGSERIAL PRIMARY KEY,
+-- Шаг совпадает с allocationSize в Task: Hibernate резервирует id блоками (pooled-lo)
+CREATE SEQUENCE IF NOT EXISTS tasks_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS tasks (
+                       id BIGINT PRIMARY KEY DEFAULT nextval('tasks_seq'),
                        title VARCHAR(255) NOT NULL,
                        description TEXT,
                        deadline DATE NOT NULL,
-                       status VARCHAR(20) NOT NULL,
+                       -- Коды TaskStatus: 0 NEW, 1 PENDING, 2 IN_PROGRESS, 3 DONE, 4 CANCELLED
+                       status SMALLINT NOT NULL CHECK (status BETWEEN 0 AND 4),
                        user_id BIGINT NOT NULL,
+                       version BIGINT NOT NULL DEFAULT 0,
+                       created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+                       updated_at TIMESTAMPTZ NOT NULL DEFAULT now(),
                        CONSTRAINT fk_user FOREIGN KEY (user_id) REFERENCES users (id)
-);
\ No newline at end of file
+);
+
+-- Отдельной командой, чтобы колонка появилась и в уже существующей таблице tasks
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS search_vector TSVECTOR GENERATED ALWAYS AS (
+                           setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+                           setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+                       ) STORED;
+
+-- Счётчик изменений задач пользователя для ETag списка задач
+CREATE TABLE IF NOT EXISTS task_change_counters (
+                       user_id BIGINT PRIMARY KEY,
+                       version BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_tasks_user_deadline_id ON tasks (user_id, deadline, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_user_status_deadline_id ON tasks (user_id, status, deadline, id);
+-- Просроченные задачи ищутся только среди открытых (не DONE и не CANCELLED), поэтому индекс частичный
+CREATE INDEX IF NOT EXISTS idx_tasks_user_open_deadline_id ON tasks (user_id, deadline, id) WHERE status NOT IN (3, 4);
+CREATE INDEX IF NOT EXISTS idx_tasks_search_vector ON tasks USING GIN (search_vector);
+-- Отбор кандидатов на архивацию: завершённые задачи по дедлайну
+CREATE INDEX IF NOT EXISTS idx_tasks_done_deadline_id ON tasks (deadline, id) WHERE status = 3;
+-- Лента изменений: задачи пользователя по времени изменения
+CREATE INDEX IF NOT EXISTS idx_tasks_user_updated_id ON tasks (user_id, updated_at, id);
+
+-- Задачи, пропавшие из списка пользователя (удаление, смена владельца, архивация), для ленты изменений
+CREATE TABLE IF NOT EXISTS task_tombstones (
+                       id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                       task_id BIGINT NOT NULL,
+                       user_id BIGINT NOT NULL,
+                       deleted_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+                       CONSTRAINT fk_task_tombstones_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_tombstones_user_deleted_task ON task_tombstones (user_id, deleted_at, task_id);
+CREATE INDEX IF NOT EXISTS idx_task_tombstones_deleted_at ON task_tombstones (deleted_at);
+
+-- Напоминания о дедлайнах; task_id без внешнего ключа: напоминание переживает удаление задачи
+CREATE TABLE IF NOT EXISTS notifications (
+                       id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                       user_id BIGINT NOT NULL,
+                       task_id BIGINT NOT NULL,
+                       title VARCHAR(255) NOT NULL,
+                       deadline DATE NOT NULL,
+                       created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+                       CONSTRAINT fk_notifications_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+                       CONSTRAINT uk_notifications_task_deadline UNIQUE (task_id, deadline)
+);
+
+CREATE INDEX IF NOT EXISTS idx_notifications_user_id ON notifications (user_id, id);
+
+-- Архив завершённых задач. Секции по месяцу дедлайна создаёт TaskArchiveJob перед переносом
+CREATE TABLE IF NOT EXISTS tasks_archive (
+                       id BIGINT NOT NULL,
+                       title VARCHAR(255) NOT NULL,
+                       description TEXT,
+                       deadline DATE NOT NULL,
+                       status SMALLINT NOT NULL,
+                       user_id BIGINT NOT NULL,
+                       version BIGINT NOT NULL,
+                       created_at TIMESTAMPTZ NOT NULL,
+                       updated_at TIMESTAMPTZ NOT NULL,
+                       archived_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+                       PRIMARY KEY (id, deadline),
+                       CONSTRAINT fk_tasks_archive_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+) PARTITION BY RANGE (deadline);
+
+CREATE INDEX IF NOT EXISTS idx_tasks_archive_user_deadline_id ON tasks_archive (user_id, deadline, id);
+
+-- Счётчики задач по (пользователь, статус), включая архивные; поддерживаются приложением,
+-- overdue_count пересчитывается ночной сверкой
+CREATE TABLE IF NOT EXISTS task_stats (
+                       user_id BIGINT NOT NULL,
+                       status SMALLINT NOT NULL,
+                       task_count BIGINT NOT NULL DEFAULT 0,
+                       overdue_count BIGINT NOT NULL DEFAULT 0,
+                       PRIMARY KEY (user_id, status),
+                       CONSTRAINT fk_task_stats_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+-- Отозванные JWT; строки нужны только до expires_at. user_id без внешнего ключа:
+-- отзыв должен пережить удаление пользователя
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+                       jti VARCHAR(36) PRIMARY KEY,
+                       user_id BIGINT NOT NULL,
+                       expires_at TIMESTAMPTZ NOT NULL,
+                       revoked_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
+
+-- Refresh-токены: хранится только SHA-256; погашенные строки (used_at) нужны до expires_at,
+-- чтобы распознать повторное использование
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+                       id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                       token_hash VARCHAR(64) NOT NULL,
+                       family_id VARCHAR(36) NOT NULL,
+                       user_id BIGINT NOT NULL,
+                       expires_at TIMESTAMPTZ NOT NULL,
+                       created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+                       used_at TIMESTAMPTZ,
+                       CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_refresh_tokens_token_hash ON refresh_tokens (token_hash);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family ON refresh_tokens (family_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
@@ -0,0 +1,82 @@
+package org.example.projectfinalspring.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private ReadYourWritesTracker tracker;
+    private ReadWriteRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new ReadYourWritesTracker(Duration.ofMinutes(1), 100);
+        dataSource = new ReadWriteRoutingDataSource(tracker);
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransaction_shouldGoToReplica() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.Route.REPLICA);
+    }
+
+    @Test
+    void writeTransaction_shouldGoToPrimary() {
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.Route.PRIMARY);
+    }
+
+    @Test
+    void readAfterOwnCommittedWrite_shouldStayOnPrimary() {
+        authenticate("alice");
+        dataSource.determineCurrentLookupKey();
+        commit();
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.Route.PRIMARY);
+
+        authenticate("bob");
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.Route.REPLICA);
+    }
+
+    @Test
+    void rolledBackWrite_shouldNotMakeReadsSticky() {
+        authenticate("alice");
+        dataSource.determineCurrentLookupKey();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.Route.REPLICA);
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.projectfinalspring.config;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.jpa.SpecHints;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReplicaCacheModeListenerTest {
+
+    private final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final TransactionExecution transaction = mock(TransactionExecution.class);
+    private ReadYourWritesTracker tracker;
+    private ReplicaCacheModeListener listener;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new ReadYourWritesTracker(Duration.ofMinutes(1), 100);
+        listener = new ReplicaCacheModeListener(entityManagerFactory, tracker);
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        when(entityManager.getCacheStoreMode()).thenReturn(CacheStoreMode.USE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+        TransactionSynchronizationManager.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void replicaRead_shouldBypassCacheStoreAndRestoreItAfterCompletion() {
+        readOnly();
+
+        listener.afterBegin(transaction, null);
+        verify(entityManager).setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+
+        complete();
+        verify(entityManager).setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.USE);
+    }
+
+    @Test
+    void readOfRecentWriter_shouldKeepCacheStore() {
+        readOnly();
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("alice", null, List.of()));
+        tracker.markWrite("alice");
+
+        listener.afterBegin(transaction, null);
+
+        verify(entityManager, never()).setProperty(anyString(), any());
+    }
+
+    @Test
+    void writeTransaction_shouldKeepCacheStore() {
+        listener.afterBegin(transaction, null);
+
+        verify(entityManager, never()).setProperty(anyString(), any());
+    }
+
+    private void readOnly() {
+        when(transaction.isReadOnly()).thenReturn(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    private static void complete() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+}
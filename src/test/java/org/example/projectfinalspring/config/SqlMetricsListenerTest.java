@@ -0,0 +1,56 @@
+package org.example.projectfinalspring.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlMetricsListenerTest {
+
+    @Test
+    void normalize_shouldCollapseWhitespaceInListsAndValuesRows() {
+        assertThat(SqlMetricsListener.normalize("select *\n  from tasks where id in (?, ?,?)"))
+                .isEqualTo("select * from tasks where id in (?)");
+        assertThat(SqlMetricsListener.normalize(
+                "INSERT INTO task_stats VALUES (CAST(? AS bigint), ?), (CAST(? AS bigint), ?) ON CONFLICT DO NOTHING"))
+                .isEqualTo("INSERT INTO task_stats VALUES (CAST(? AS bigint), ?) ON CONFLICT DO NOTHING");
+    }
+
+    @Test
+    void afterQuery_shouldRecordTimerPerNormalizedStatement() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SqlMetricsListener listener = new SqlMetricsListener(registry, Duration.ofMinutes(1));
+
+        for (String sql : List.of("select * from tasks where id in (?, ?)", "select * from tasks where id in (?)")) {
+            ExecutionInfo execInfo = new ExecutionInfo();
+            execInfo.setSuccess(true);
+            List<QueryInfo> queries = List.of(new QueryInfo(sql));
+            listener.beforeQuery(execInfo, queries);
+            listener.afterQuery(execInfo, queries);
+        }
+
+        assertThat(registry.get("db.sql")
+                .tag("statement", "select * from tasks where id in (?)")
+                .tag("outcome", "success")
+                .timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void parameters_shouldLogTypesWithoutValues() throws Exception {
+        QueryInfo query = new QueryInfo("update users set password = ? where id = ?");
+        query.getParametersList().add(List.of(
+                new ParameterSetOperation(PreparedStatement.class.getMethod("setString", int.class, String.class),
+                        new Object[]{1, "$2a$10$secret-hash"}),
+                new ParameterSetOperation(PreparedStatement.class.getMethod("setLong", int.class, long.class),
+                        new Object[]{2, 7L})));
+
+        assertThat(SqlMetricsListener.parameters(List.of(query))).isEqualTo("[String, Long]");
+    }
+}
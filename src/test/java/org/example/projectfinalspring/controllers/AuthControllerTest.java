@@ -0,0 +1,124 @@
+package org.example.projectfinalspring.controllers;
+
+import org.example.projectfinalspring.repositories.UserCredentials;
+import org.example.projectfinalspring.security.JwtTokenUtil;
+import org.example.projectfinalspring.services.PasswordHashingService;
+import org.example.projectfinalspring.services.PasswordHashingService.PasswordCheck;
+import org.example.projectfinalspring.services.RefreshTokenService;
+import org.example.projectfinalspring.services.TokenRevocationService;
+import org.example.projectfinalspring.services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthControllerTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Mock
+    private TokenRevocationService revocationService;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private UserCredentials credentials;
+
+    private final ExecutorService hashingExecutor =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("password-hashing-"));
+    private final ExecutorService taskExecutor =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("task-"));
+
+    private AuthController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new AuthController(userService, passwordHashingService, jwtTokenUtil, revocationService,
+                refreshTokenService, taskExecutor);
+        when(credentials.getId()).thenReturn(1L);
+        when(credentials.getPassword()).thenReturn("$2a$08$old");
+        when(userService.findCredentialsByUsername("john")).thenReturn(credentials);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hashingExecutor.shutdownNow();
+        taskExecutor.shutdownNow();
+    }
+
+    @Test
+    void login_withUpgradedHash_shouldStoreItOffHashingPool() throws Exception {
+        when(passwordHashingService.verify("secret", "$2a$08$old"))
+                .thenReturn(CompletableFuture.supplyAsync(() -> new PasswordCheck(true, "$2a$10$new"), hashingExecutor));
+        AtomicReference<String> storeThread = new AtomicReference<>();
+        CountDownLatch stored = new CountDownLatch(1);
+        when(userService.upgradePasswordHash(1L, "$2a$08$old", "$2a$10$new")).thenAnswer(invocation -> {
+            storeThread.set(Thread.currentThread().getName());
+            stored.countDown();
+            return true;
+        });
+
+        ResponseEntity<AuthResponse> response = controller.createAuthenticationToken(request()).get(5, TimeUnit.SECONDS);
+
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(stored.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(storeThread.get()).startsWith("task-");
+    }
+
+    @Test
+    void login_shouldIssueTokensOffHashingPool() throws Exception {
+        when(credentials.getUsername()).thenReturn("john");
+        when(credentials.getRole()).thenReturn("USER");
+        when(passwordHashingService.verify("secret", "$2a$08$old"))
+                .thenReturn(CompletableFuture.supplyAsync(() -> new PasswordCheck(true, null), hashingExecutor));
+        AtomicReference<String> signThread = new AtomicReference<>();
+        AtomicReference<String> issueThread = new AtomicReference<>();
+        when(jwtTokenUtil.generateToken(1L, "john", "USER")).thenAnswer(invocation -> {
+            signThread.set(Thread.currentThread().getName());
+            return "access";
+        });
+        when(refreshTokenService.issue(1L)).thenAnswer(invocation -> {
+            issueThread.set(Thread.currentThread().getName());
+            return "refresh";
+        });
+
+        ResponseEntity<AuthResponse> response = controller.createAuthenticationToken(request()).get(5, TimeUnit.SECONDS);
+
+        assertThat(response.getBody().getToken()).isEqualTo("access");
+        assertThat(response.getBody().getRefreshToken()).isEqualTo("refresh");
+        assertThat(signThread.get()).startsWith("task-");
+        assertThat(issueThread.get()).startsWith("task-");
+        verify(userService).findCredentialsByUsername("john");
+        verifyNoMoreInteractions(userService);
+    }
+
+    private static AuthRequest request() {
+        AuthRequest request = new AuthRequest();
+        request.setUsername("john");
+        request.setPassword("secret");
+        return request;
+    }
+}
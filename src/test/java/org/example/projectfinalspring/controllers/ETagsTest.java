@@ -0,0 +1,37 @@
+package org.example.projectfinalspring.controllers;
+
+import org.example.projectfinalspring.entities.Task;
+import org.example.projectfinalspring.entities.TaskStatus;
+import org.example.projectfinalspring.entities.User;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ETagsTest {
+
+    @Test
+    void expectedVersion_shouldParseOwnETag() {
+        User user = new User();
+        user.setId(100L);
+        user.setVersion(2L);
+        Task task = new Task(1L, "title", null, null, TaskStatus.NEW, user);
+        task.setVersion(7L);
+
+        assertThat(ETags.expectedVersion(ETags.task(task), "task", 1L)).isEqualTo(7L);
+        assertThat(ETags.expectedVersion(ETags.user(user), "user", 100L)).isEqualTo(2L);
+    }
+
+    @Test
+    void expectedVersion_shouldIgnoreMissingOrWildcard() {
+        assertThat(ETags.expectedVersion(null, "task", 1L)).isNull();
+        assertThat(ETags.expectedVersion("*", "task", 1L)).isNull();
+    }
+
+    @Test
+    void expectedVersion_shouldNeverMatchForeignETag() {
+        assertThat(ETags.expectedVersion("\"task-2-7-2\"", "task", 1L)).isEqualTo(-1L);
+        assertThat(ETags.expectedVersion("\"user-1-7\"", "task", 1L)).isEqualTo(-1L);
+        assertThat(ETags.expectedVersion("W/\"task-1-7-2\"", "task", 1L)).isEqualTo(-1L);
+        assertThat(ETags.expectedVersion("garbage", "task", 1L)).isEqualTo(-1L);
+    }
+}
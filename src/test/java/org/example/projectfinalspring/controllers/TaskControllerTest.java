@@ -6,6 +6,9 @@ import org.example.projectfinalspring.DTO.UpdateTaskDTO;
 import org.example.projectfinalspring.entities.Task;
 import org.example.projectfinalspring.entities.User;
 import org.example.projectfinalspring.mappers.DTOMapper;
+import org.example.projectfinalspring.repositories.ResourceVersion;
+import org.example.projectfinalspring.repositories.TaskFilter;
+import org.example.projectfinalspring.services.TaskCursor;
 import org.example.projectfinalspring.services.TaskService;
 import org.example.projectfinalspring.services.UserService;
 import org.junit.jupiter.api.Test;
@@ -14,6 +17,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.testcontainers.shaded.com.fasterxml.jackson.databind.ObjectMapper;
@@ -23,6 +27,11 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
@@ -62,7 +71,8 @@ class TaskControllerTest {
         dto.setId(1L);
         dto.setTitle("Test Task");
 
-        when(taskService.getTaskById(1L)).thenReturn(Optional.of(task));
+        when(taskService.getTaskVersion(100L, 1L)).thenReturn(Optional.of(version(0L, 0L)));
+        when(taskService.getTaskById(100L, 1L)).thenReturn(Optional.of(task));
         when(mapper.toTaskDTO(task)).thenReturn(dto);
 
 
@@ -74,7 +84,7 @@ class TaskControllerTest {
 
     @Test
     void getTaskById_notFound() throws Exception {
-        when(taskService.getTaskById(999L)).thenReturn(Optional.empty());
+        when(taskService.getTaskVersion(100L, 999L)).thenReturn(Optional.empty());
 
 
         mockMvc.perform(get("/api/users/100/tasks/999"))
@@ -103,15 +113,44 @@ class TaskControllerTest {
         dto2.setTitle("Task 2");
         List<TaskDTO> dtos = List.of(dto1, dto2);
 
-        when(taskService.findByUserId(100L)).thenReturn(tasks);
+        when(taskService.findPage(any(TaskFilter.class), isNull(), eq(51))).thenReturn(tasks);
         when(mapper.toTaskDTO(task1)).thenReturn(dto1);
         when(mapper.toTaskDTO(task2)).thenReturn(dto2);
 
         mockMvc.perform(get("/api/users/100/tasks"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)))
-                .andExpect(jsonPath("$[0].id").value(1))
-                .andExpect(jsonPath("$[1].id").value(2));
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[1].id").value(2))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    void getAllTasksByUser_shouldReturnNextCursorWhenMoreTasksExist() throws Exception {
+        Task task1 = new Task();
+        task1.setId(1L);
+        task1.setDeadline(LocalDate.of(2026, 1, 10));
+
+        Task task2 = new Task();
+        task2.setId(2L);
+        task2.setDeadline(LocalDate.of(2026, 1, 11));
+
+        TaskDTO dto1 = new TaskDTO();
+        dto1.setId(1L);
+
+        when(taskService.findPage(any(TaskFilter.class), isNull(), eq(2))).thenReturn(List.of(task1, task2));
+        when(mapper.toTaskDTO(task1)).thenReturn(dto1);
+
+        mockMvc.perform(get("/api/users/100/tasks").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.next").value(TaskCursor.of(task1).encode()));
+    }
+
+    @Test
+    void getAllTasksByUser_invalidCursor_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/users/100/tasks").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -166,6 +205,20 @@ class TaskControllerTest {
         return mapper.writeValueAsString(obj);
     }
 
+    private static ResourceVersion version(Long version, Long userVersion) {
+        return new ResourceVersion() {
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+
+            @Override
+            public Long getUserVersion() {
+                return userVersion;
+            }
+        };
+    }
+
     @Test
     void updateTask_shouldReturnUpdated() throws Exception {
 
@@ -180,11 +233,6 @@ class TaskControllerTest {
         User user = new User();
         user.setId(100L);
 
-        Task existingTask = new Task();
-        existingTask.setId(1L);
-        existingTask.setTitle("Old Title");
-        existingTask.setUser(user);
-
         Task updatedTask = new Task();
         updatedTask.setId(1L);
         updatedTask.setTitle("Updated Title");
@@ -195,8 +243,7 @@ class TaskControllerTest {
         responseDTO.setTitle("Updated Title");
 
 
-        when(taskService.getTaskById(1L)).thenReturn(Optional.of(existingTask));
-        when(taskService.updateTask(1L, updatedTask)).thenReturn(updatedTask);
+        when(taskService.updateTask(eq(100L), eq(1L), any(Task.class))).thenReturn(Optional.of(updatedTask));
         when(mapper.toTaskDTO(updatedTask)).thenReturn(responseDTO);
 
 
@@ -206,6 +253,25 @@ class TaskControllerTest {
                         .content(asJsonString(updateDTO)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.title").value("Updated Title"));
+
+        verify(taskService, never()).getTaskById(100L, 1L);
+    }
+
+    @Test
+    void updateTask_versionConflict_shouldReturnConflict() throws Exception {
+        UpdateTaskDTO updateDTO = new UpdateTaskDTO();
+        updateDTO.setTitle("Updated Title");
+        updateDTO.setDeadline(LocalDate.now().plusDays(14));
+        updateDTO.setStatus("DONE");
+        updateDTO.setVersion(3L);
+
+        when(taskService.updateTask(eq(100L), eq(1L), any(Task.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Task.class, 1L));
+
+        mockMvc.perform(put("/api/users/100/tasks/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(updateDTO)))
+                .andExpect(status().isConflict());
     }
 
     @Test
@@ -213,7 +279,7 @@ class TaskControllerTest {
         UpdateTaskDTO updateDTO = new UpdateTaskDTO();
         updateDTO.setTitle("Updated");
 
-        when(taskService.getTaskById(999L)).thenReturn(Optional.empty());
+        when(taskService.updateTask(eq(100L), eq(999L), any(Task.class))).thenReturn(Optional.empty());
 
         mockMvc.perform(put("/api/users/100/tasks/999")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -0,0 +1,50 @@
+package org.example.projectfinalspring.controllers;
+
+import org.example.projectfinalspring.security.JwtTokenUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TaskExportControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Test
+    void exportAllTasks_userToken_shouldBeForbidden() throws Exception {
+        mockMvc.perform(get("/api/tasks/export")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(7L, "user7", "USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void exportAllTasks_adminToken_shouldBeAllowed() throws Exception {
+        mockMvc.perform(get("/api/tasks/export")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(1L, "admin", "ADMIN")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void exportTasksByUser_otherUserToken_shouldBeForbidden() throws Exception {
+        mockMvc.perform(get("/api/users/8/tasks/export")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(7L, "user7", "USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    private String bearer(Long userId, String username, String role) {
+        return "Bearer " + jwtTokenUtil.generateToken(userId, username, role);
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.projectfinalspring.controllers;
+
+import org.example.projectfinalspring.entities.Task;
+import org.example.projectfinalspring.entities.TaskStatus;
+import org.example.projectfinalspring.entities.User;
+import org.example.projectfinalspring.repositories.TaskRepository;
+import org.example.projectfinalspring.repositories.UserRepository;
+import org.example.projectfinalspring.security.JwtTokenUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class TaskOwnershipIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private User owner;
+    private User other;
+    private Task otherTask;
+
+    @BeforeEach
+    void setUp() {
+        owner = user("owner");
+        other = user("other");
+        otherTask = task(other);
+        taskRepository.flush();
+    }
+
+    // user_id в пути свой, task_id — чужой
+    @Test
+    void getTask_foreignTaskUnderOwnPath_shouldReturnNotFound() throws Exception {
+        mockMvc.perform(get("/api/users/{user_id}/tasks/{task_id}", owner.getId(), otherTask.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearer(owner)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void updateTask_foreignTaskUnderOwnPath_shouldReturnNotFound() throws Exception {
+        mockMvc.perform(put("/api/users/{user_id}/tasks/{task_id}", owner.getId(), otherTask.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearer(owner))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"stolen\",\"deadline\":\"" + LocalDate.now().plusDays(1)
+                                + "\",\"status\":\"NEW\"}"))
+                .andExpect(status().isNotFound());
+
+        assertThat(taskRepository.findById(otherTask.getId())).get()
+                .extracting(Task::getTitle).isEqualTo("Other task");
+    }
+
+    @Test
+    void deleteTask_foreignTaskUnderOwnPath_shouldReturnNotFound() throws Exception {
+        mockMvc.perform(delete("/api/users/{user_id}/tasks/{task_id}", owner.getId(), otherTask.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearer(owner)))
+                .andExpect(status().isNotFound());
+
+        assertThat(taskRepository.findById(otherTask.getId())).isPresent();
+    }
+
+    @Test
+    void updateUser_otherUser_shouldBeForbidden() throws Exception {
+        mockMvc.perform(put("/api/users/{user_id}", other.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearer(owner))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"hijacked\",\"email\":\"hijacked@test.com\"}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void deleteUser_otherUser_shouldBeForbidden() throws Exception {
+        mockMvc.perform(delete("/api/users/{user_id}", other.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearer(owner)))
+                .andExpect(status().isForbidden());
+
+        assertThat(userRepository.findById(other.getId())).isPresent();
+    }
+
+    private String bearer(User user) {
+        return "Bearer " + jwtTokenUtil.generateToken(user.getId(), user.getUsername(), "USER");
+    }
+
+    private User user(String prefix) {
+        String name = prefix + "_" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername(name);
+        user.setEmail(name + "@test.com");
+        user.setPassword("password123");
+        user.setRole("USER");
+        return userRepository.save(user);
+    }
+
+    private Task task(User user) {
+        Task task = new Task();
+        task.setTitle("Other task");
+        task.setDeadline(LocalDate.now().plusDays(7));
+        task.setStatus(TaskStatus.NEW);
+        task.setUser(user);
+        return taskRepository.save(task);
+    }
+}
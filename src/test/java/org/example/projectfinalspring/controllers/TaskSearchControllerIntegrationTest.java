@@ -0,0 +1,157 @@
+package org.example.projectfinalspring.controllers;
+
+import com.jayway.jsonpath.JsonPath;
+import org.example.projectfinalspring.entities.Task;
+import org.example.projectfinalspring.entities.TaskStatus;
+import org.example.projectfinalspring.entities.User;
+import org.example.projectfinalspring.repositories.TaskRepository;
+import org.example.projectfinalspring.repositories.UserRepository;
+import org.example.projectfinalspring.security.JwtTokenUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class TaskSearchControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    // Слово, которого нет в остальных данных базы
+    private final String word = "srch" + UUID.randomUUID().toString().replace("-", "");
+
+    private User owner;
+    private User other;
+    private Task inTitle;
+    private Task inDescription;
+    private Task otherTask;
+
+    @BeforeEach
+    void setUp() {
+        owner = user("owner");
+        other = user("other");
+        inDescription = task(owner, "Plain title", "mentions " + word);
+        inTitle = task(owner, "About " + word, "nothing else");
+        otherTask = task(other, "Also " + word, null);
+        taskRepository.flush();
+    }
+
+    @Test
+    void search_titleMatch_shouldRankAboveDescriptionMatch() throws Exception {
+        mockMvc.perform(get("/api/tasks/search").param("q", word)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(owner, "USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].id").value(inTitle.getId()))
+                .andExpect(jsonPath("$.items[1].id").value(inDescription.getId()))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    void search_withCursor_shouldReturnEveryHitOnceInRankOrder() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            task(owner, "Filler " + i, word);
+        }
+        taskRepository.flush();
+
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String body = mockMvc.perform(get("/api/tasks/search").param("q", word).param("limit", "2")
+                            .param("cursor", cursor)
+                            .header(HttpHeaders.AUTHORIZATION, bearer(owner, "USER")))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            List<Number> pageIds = JsonPath.read(body, "$.items[*].id");
+            pageIds.forEach(id -> ids.add(id.longValue()));
+            cursor = JsonPath.read(body, "$.next");
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(ids).hasSize(5).doesNotHaveDuplicates().first().isEqualTo(inTitle.getId());
+    }
+
+    @Test
+    void search_userWithoutUserId_shouldSeeOnlyOwnTasks() throws Exception {
+        mockMvc.perform(get("/api/tasks/search").param("q", word)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(owner, "USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].id").value(containsInAnyOrder(
+                        inTitle.getId().intValue(), inDescription.getId().intValue())));
+    }
+
+    @Test
+    void search_userWithForeignUserId_shouldBeForbidden() throws Exception {
+        mockMvc.perform(get("/api/tasks/search").param("q", word).param("user_id", other.getId().toString())
+                        .header(HttpHeaders.AUTHORIZATION, bearer(owner, "USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void search_adminWithoutUserId_shouldSearchAllTasks() throws Exception {
+        mockMvc.perform(get("/api/tasks/search").param("q", word)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(other, "ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(3)));
+        mockMvc.perform(get("/api/tasks/search").param("q", word).param("user_id", other.getId().toString())
+                        .header(HttpHeaders.AUTHORIZATION, bearer(owner, "ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].id").value(containsInAnyOrder(otherTask.getId().intValue())));
+    }
+
+    private String bearer(User user, String role) {
+        return "Bearer " + jwtTokenUtil.generateToken(user.getId(), user.getUsername(), role);
+    }
+
+    private User user(String prefix) {
+        String name = prefix + "_" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername(name);
+        user.setEmail(name + "@test.com");
+        user.setPassword("password123");
+        user.setRole("USER");
+        return userRepository.save(user);
+    }
+
+    private Task task(User user, String title, String description) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDescription(description);
+        task.setDeadline(LocalDate.now().plusDays(7));
+        task.setStatus(TaskStatus.NEW);
+        task.setUser(user);
+        return taskRepository.save(task);
+    }
+}
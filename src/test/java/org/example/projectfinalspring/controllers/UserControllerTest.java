@@ -1,6 +1,7 @@
 package org.example.projectfinalspring.controllers;
 
 import org.example.projectfinalspring.entities.User;
+import org.example.projectfinalspring.repositories.UserSummary;
 import org.example.projectfinalspring.services.UserService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,12 +10,16 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Optional;
+
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -45,7 +50,8 @@ class UserControllerTest {
         mockUser.setUsername("testuser");
         mockUser.setEmail("test@example.com");
 
-        when(userService.getUserById(EXISTING_USER_ID)).thenReturn(mockUser);
+        UserSummary summary = new SpelAwareProxyProjectionFactory().createProjection(UserSummary.class, mockUser);
+        when(userService.getUserSummaryById(EXISTING_USER_ID)).thenReturn(summary);
 
         ResultActions result = mockMvc.perform(get(USER_ENDPOINT + "/{id}", EXISTING_USER_ID)
                 .contentType(MediaType.APPLICATION_JSON));
@@ -62,7 +68,7 @@ class UserControllerTest {
 
     @Test
     void getUserById_shouldReturnNotFound() throws Exception {
-        when(userService.getUserById(999L))
+        when(userService.getUserSummaryById(999L))
                 .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND));
 
         ResultActions result = mockMvc.perform(get(USER_ENDPOINT + "/{id}", 999L)
@@ -145,6 +151,19 @@ class UserControllerTest {
     }
 
 
+    @Test
+    void getUserById_matchingETag_shouldReturnNotModified() throws Exception {
+        when(userService.getUserVersion(EXISTING_USER_ID)).thenReturn(Optional.of(3L));
+
+        mockMvc.perform(get(USER_ENDPOINT + "/{id}", EXISTING_USER_ID)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"user-1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"user-1-3\""));
+
+        verify(userService, never()).getUserSummaryById(EXISTING_USER_ID);
+    }
+
+
     @Test
     void deleteUser_shouldReturnNoContent() throws Exception {
         when(userService.getUserById(999L))
@@ -154,7 +173,7 @@ class UserControllerTest {
 
         result.andExpect(status().isNoContent());
 
-        verify(userService, times(1)).deleteUser(EXISTING_USER_ID);
+        verify(userService, times(1)).deleteUser(EXISTING_USER_ID, null);
     }
 
 
@@ -171,7 +190,7 @@ class UserControllerTest {
 
         result.andExpect(status().isNotFound());
 
-        verify(userService, never()).deleteUser(999L);
+        verify(userService, never()).deleteUser(999L, null);
         result.andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON));
     }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package org.example.projectfinalspring.entities;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskStatusTest {
+
+    private final TaskStatusConverter converter = new TaskStatusConverter();
+
+    @Test
+    void converter_shouldRoundTripEveryStatus() {
+        for (TaskStatus status : TaskStatus.values()) {
+            assertThat(converter.convertToEntityAttribute(converter.convertToDatabaseColumn(status))).isEqualTo(status);
+        }
+    }
+
+    @Test
+    void codes_shouldStayStable() {
+        assertThat(TaskStatus.NEW.getCode()).isEqualTo((short) 0);
+        assertThat(TaskStatus.DONE.getCode()).isEqualTo((short) 3);
+        assertThat(TaskStatus.CANCELLED.getCode()).isEqualTo((short) 4);
+    }
+
+    @Test
+    void parse_shouldAcceptLegacyAndLowerCaseNames() {
+        assertThat(TaskStatus.parse("COMPLETED")).isEqualTo(TaskStatus.DONE);
+        assertThat(TaskStatus.parse("in_progress")).isEqualTo(TaskStatus.IN_PROGRESS);
+        assertThatThrownBy(() -> TaskStatus.parse("INVALID_STATUS")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void closed_shouldBeDoneAndCancelled() {
+        assertThat(TaskStatus.closed()).containsExactly(TaskStatus.DONE, TaskStatus.CANCELLED);
+        assertThat(TaskStatus.CLOSED_CODES_SQL).isEqualTo("(3, 4)");
+    }
+}
@@ -16,7 +16,7 @@ class TaskTest {
         task.setTitle("Test Task");
         task.setDescription("Description");
         task.setDeadline(LocalDate.of(2026, 12, 25));
-        task.setStatus("PENDING");
+        task.setStatus(TaskStatus.PENDING);
 
         User user = new User();
         user.setId(100L);
@@ -27,7 +27,7 @@ class TaskTest {
         assertThat(task.getTitle()).isEqualTo("Test Task");
         assertThat(task.getDescription()).isEqualTo("Description");
         assertThat(task.getDeadline()).isEqualTo(LocalDate.of(2026, 12, 25));
-        assertThat(task.getStatus()).isEqualTo("PENDING");
+        assertThat(task.getStatus()).isEqualTo(TaskStatus.PENDING);
         assertThat(task.getUser().getId()).isEqualTo(100L);
     }
 
@@ -41,7 +41,7 @@ class TaskTest {
                 "Build Task",
                 "Use constructor",
                 LocalDate.now(),
-                "DONE",
+                TaskStatus.DONE,
                 user
         );
 
@@ -54,7 +54,7 @@ class TaskTest {
         Task task = new Task();
         task.setId(5L);
         task.setTitle("Sample");
-        task.setStatus("NEW");
+        task.setStatus(TaskStatus.NEW);
 
         String str = task.toString();
 
@@ -76,14 +76,14 @@ class TaskTest {
 
         task1.setDeadline(LocalDate.now());
 
-        task1.setStatus("IN_PROGRESS");
+        task1.setStatus(TaskStatus.IN_PROGRESS);
 
         Task task2 = new Task();
         task2.setId(10L);
         task2.setTitle("Task A");
         task2.setUser(user);
         task2.setDeadline(LocalDate.now());
-        task2.setStatus("IN_PROGRESS");
+        task2.setStatus(TaskStatus.IN_PROGRESS);
 
         assertThat(task1).isEqualTo(task2);
         assertThat(task1.hashCode()).isEqualTo(task2.hashCode());
@@ -20,8 +20,8 @@ class UserTest {
         user.setRole("ADMIN");
 
         List<Task> tasks = Arrays.asList(
-                new Task(1L, "Task 1", "Desc 1", LocalDate.now(), "PENDING", user),
-                new Task(2L, "Task 2", "Desc 2", LocalDate.now().plusDays(1), "NEW", user)
+                new Task(1L, "Task 1", "Desc 1", LocalDate.now(), TaskStatus.PENDING, user),
+                new Task(2L, "Task 2", "Desc 2", LocalDate.now().plusDays(1), TaskStatus.NEW, user)
         );
         user.setTasks(tasks);
 
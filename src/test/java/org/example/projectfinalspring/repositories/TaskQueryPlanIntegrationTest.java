@@ -0,0 +1,150 @@
+package org.example.projectfinalspring.repositories;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.example.projectfinalspring.entities.TaskStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Планы запросов страницы задач. Запросы не пишутся вручную: их текст и параметры перехватываются
+ * на прокси источника данных, пока работает метод репозитория, и затем передаются в EXPLAIN.
+ * Таблица заполняется до размера, на котором планировщик сам выбирает между индексом и полным чтением.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class TaskQueryPlanIntegrationTest {
+
+    private static final int USERS = 200;
+    private static final int TASKS_PER_USER = 250;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final List<QueryInfo> captured = new ArrayList<>();
+    private final QueryExecutionListener capture = new QueryExecutionListener() {
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            captured.addAll(queryInfoList);
+        }
+    };
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        String prefix = "plan_" + System.nanoTime() + "_";
+        jdbcTemplate.update("INSERT INTO users (username, email, password, role) " +
+                "SELECT ? || g, ? || g || '@test.com', 'pass', 'USER' FROM generate_series(1, ?) g",
+                prefix, prefix, USERS);
+        List<Long> userIds = jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE username LIKE ? ORDER BY id", Long.class, prefix + "%");
+        // Статусы и дедлайны (два года вокруг сегодняшнего дня) распределены равномерно;
+        // шаг 7 взаимно прост с 730, поэтому дедлайны каждого пользователя покрывают оба года
+        jdbcTemplate.update("INSERT INTO tasks (title, deadline, status, user_id) " +
+                "SELECT 'plan ' || g, CURRENT_DATE - 365 + ((g * 7 + u.id) % 730)::int, g % 5, u.id " +
+                "FROM users u, generate_series(1, ?) g WHERE u.username LIKE ?",
+                TASKS_PER_USER, prefix + "%");
+        jdbcTemplate.execute("ANALYZE tasks");
+        userId = userIds.get(USERS / 2);
+        proxy().getProxyConfig().getQueryListener().addListener(capture);
+    }
+
+    @AfterEach
+    void tearDown() {
+        proxy().getProxyConfig().getQueryListener().getListeners().remove(capture);
+    }
+
+    @Test
+    void userTaskPage_shouldUseUserDeadlineIndex() {
+        TaskFilter filter = new TaskFilter();
+        filter.setUserId(userId);
+
+        String plan = explainCaptured(() -> taskRepository.findPage(filter, LocalDate.now(), 0L, 51));
+
+        assertThat(plan).contains("idx_tasks_user_deadline_id").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void statusFilteredPage_shouldUseUserStatusIndex() {
+        TaskFilter filter = new TaskFilter();
+        filter.setUserId(userId);
+        // Открытый и закрытый статусы вместе: ни один из частичных индексов такой запрос не покрывает
+        filter.setStatuses(Set.of(TaskStatus.NEW, TaskStatus.DONE));
+        filter.setDeadlineFrom(LocalDate.now());
+        filter.setDeadlineTo(LocalDate.now().plusMonths(1));
+
+        String plan = explainCaptured(() -> taskRepository.findPage(filter, null, null, 51));
+
+        assertThat(plan).contains("idx_tasks_user_status_deadline_id").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void overduePage_shouldUsePartialOpenTasksIndex() {
+        TaskFilter filter = new TaskFilter();
+        filter.setUserId(userId);
+        filter.setOverdue(true);
+
+        String plan = explainCaptured(() -> taskRepository.findPage(filter, null, null, 51));
+
+        assertThat(plan).contains("idx_tasks_user_open_deadline_id").doesNotContain("Seq Scan");
+    }
+
+    // EXPLAIN последнего выполненного запроса к tasks с теми же параметрами
+    private String explainCaptured(Runnable repositoryCall) {
+        captured.clear();
+        repositoryCall.run();
+        QueryInfo query = captured.stream()
+                .filter(info -> info.getQuery().contains(" from tasks "))
+                .reduce((first, second) -> second)
+                .orElseThrow(() -> new AssertionError("No query on tasks captured: " + captured));
+        List<ParameterSetOperation> parameters = query.getParametersList().isEmpty()
+                ? List.of()
+                : query.getParametersList().get(0);
+        proxy().getProxyConfig().getQueryListener().getListeners().remove(capture);
+
+        List<String> lines = jdbcTemplate.query("EXPLAIN " + query.getQuery(), statement -> {
+            for (ParameterSetOperation parameter : parameters) {
+                Object[] args = parameter.getArgs();
+                if (ParameterSetOperation.isSetNullParameterOperation(parameter)) {
+                    statement.setNull((Integer) args[0], (Integer) args[1]);
+                } else {
+                    statement.setObject((Integer) args[0], args[1]);
+                }
+            }
+        }, (rs, rowNum) -> rs.getString(1));
+        return String.join("\n", lines);
+    }
+
+    private ProxyDataSource proxy() {
+        return (ProxyDataSource) dataSource;
+    }
+}
@@ -1,12 +1,14 @@
 package org.example.projectfinalspring.repositories;
 
 import org.example.projectfinalspring.entities.Task;
+import org.example.projectfinalspring.entities.TaskStatus;
 import org.example.projectfinalspring.entities.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -45,7 +47,7 @@ public class TaskRepositoryIntegrationTest {
         task.setTitle("New Task");
         task.setDescription("Save to DB");
         task.setDeadline(LocalDate.now().plusDays(3));
-        task.setStatus("NEW");
+        task.setStatus(TaskStatus.NEW);
         task.setUser(testUser);
 
         Task saved = taskRepository.save(task);
@@ -95,11 +97,11 @@ public class TaskRepositoryIntegrationTest {
         Task task = createAndSaveTask("To Update");
 
         task.setTitle("Updated Title");
-        task.setStatus("COMPLETED");
+        task.setStatus(TaskStatus.DONE);
         Task updated = taskRepository.save(task);
 
         assertThat(updated.getTitle()).isEqualTo("Updated Title");
-        assertThat(updated.getStatus()).isEqualTo("COMPLETED");
+        assertThat(updated.getStatus()).isEqualTo(TaskStatus.DONE);
     }
 
     @Test
@@ -130,12 +132,30 @@ public class TaskRepositoryIntegrationTest {
         assertThat(user.get().getEmail()).isEqualTo("repo@test.com");
     }
 
+    @Test
+    @Transactional
+    void updateStatusReturningDeadlines_shouldUpdateOnlyMatchingTasks() {
+        Task first = createAndSaveTask("Sprint 1");
+        Task second = createAndSaveTask("Sprint 2");
+        Task done = createAndSaveTask("Already done");
+        done.setStatus(TaskStatus.DONE);
+        taskRepository.saveAndFlush(done);
+
+        TaskFilter filter = new TaskFilter();
+        filter.setUserId(testUser.getId());
+        filter.setStatuses(List.of(TaskStatus.NEW));
+
+        List<TaskDeadline> changed = taskRepository.updateStatusReturningDeadlines(filter, TaskStatus.IN_PROGRESS);
+
+        assertThat(changed).extracting(TaskDeadline::getId).containsExactlyInAnyOrder(first.getId(), second.getId());
+    }
+
     private Task createAndSaveTask(String title) {
         Task task = new Task();
         task.setTitle(title);
         task.setDescription("Auto-generated for test");
         task.setDeadline(LocalDate.now().plusDays(1));
-        task.setStatus("NEW");
+        task.setStatus(TaskStatus.NEW);
         task.setUser(testUser);
 
         return taskRepository.save(task);
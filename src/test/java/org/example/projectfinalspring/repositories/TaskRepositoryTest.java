@@ -1,6 +1,7 @@
 package org.example.projectfinalspring.repositories;
 
 import org.example.projectfinalspring.entities.Task;
+import org.example.projectfinalspring.entities.TaskStatus;
 import org.example.projectfinalspring.entities.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -43,7 +44,7 @@ class TaskRepositoryTest {
         task.setTitle("Learn JPA");
         task.setDescription("Read documentation and write tests.");
         task.setDeadline(LocalDate.now().plusDays(5));
-        task.setStatus("PENDING");
+        task.setStatus(TaskStatus.PENDING);
         task.setUser(testUser);
 
         Task savedTask = taskRepository.save(task);
@@ -58,7 +59,7 @@ class TaskRepositoryTest {
         Task task = new Task();
         task.setTitle("Write Unit Tests");
         task.setDeadline(LocalDate.now());
-        task.setStatus("IN_PROGRESS");
+        task.setStatus(TaskStatus.IN_PROGRESS);
         task.setUser(testUser);
 
         Task savedTask = taskRepository.save(task);
@@ -80,13 +81,13 @@ class TaskRepositoryTest {
         Task task1 = new Task();
         task1.setTitle("Task One");
         task1.setDeadline(LocalDate.now());
-        task1.setStatus("DONE");
+        task1.setStatus(TaskStatus.DONE);
         task1.setUser(testUser);
 
         Task task2 = new Task();
         task2.setTitle("Task Two");
         task2.setDeadline(LocalDate.now().plusDays(2));
-        task2.setStatus("PENDING");
+        task2.setStatus(TaskStatus.PENDING);
         task2.setUser(testUser);
 
         taskRepository.save(task1);
@@ -112,20 +113,20 @@ class TaskRepositoryTest {
         task.setTitle("Initial Title");
         task.setDescription("Old description.");
         task.setDeadline(LocalDate.now());
-        task.setStatus("NEW");
+        task.setStatus(TaskStatus.NEW);
         task.setUser(testUser);
 
         Task savedTask = taskRepository.save(task);
 
         savedTask.setTitle("Updated Title");
         savedTask.setDescription("Updated description.");
-        savedTask.setStatus("IN_PROGRESS");
+        savedTask.setStatus(TaskStatus.IN_PROGRESS);
 
         Task updatedTask = taskRepository.save(savedTask);
 
         assertThat(updatedTask.getTitle()).isEqualTo("Updated Title");
         assertThat(updatedTask.getDescription()).isEqualTo("Updated description.");
-        assertThat(updatedTask.getStatus()).isEqualTo("IN_PROGRESS");
+        assertThat(updatedTask.getStatus()).isEqualTo(TaskStatus.IN_PROGRESS);
     }
 
     @Test
@@ -133,7 +134,7 @@ class TaskRepositoryTest {
         Task task = new Task();
         task.setTitle("To Be Deleted");
         task.setDeadline(LocalDate.now());
-        task.setStatus("PENDING");
+        task.setStatus(TaskStatus.PENDING);
         task.setUser(testUser);
 
         Task savedTask = taskRepository.save(task);
@@ -149,7 +150,7 @@ class TaskRepositoryTest {
         Task task = new Task();
         task.setTitle("Independent Task");
         task.setDeadline(LocalDate.now());
-        task.setStatus("COMPLETED");
+        task.setStatus(TaskStatus.DONE);
         task.setUser(testUser);
 
         Task savedTask = taskRepository.save(task);
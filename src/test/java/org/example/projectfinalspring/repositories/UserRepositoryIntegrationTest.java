@@ -1,6 +1,7 @@
 package org.example.projectfinalspring.repositories;
 
 import org.example.projectfinalspring.entities.Task;
+import org.example.projectfinalspring.entities.TaskStatus;
 import org.example.projectfinalspring.entities.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -111,7 +112,7 @@ class UserRepositoryIntegrationTest {
         task.setTitle("User's Task");
         task.setDescription("This task belongs to the user");
         task.setDeadline(LocalDate.now().plusDays(3));
-        task.setStatus("PENDING");
+        task.setStatus(TaskStatus.PENDING);
         task.setUser(testUser);
 
         Task savedTask = taskRepository.save(task);
@@ -49,6 +49,22 @@ class UserRepositoryTest {
         assertThat(found.getEmail()).isEqualTo("john@example.com");
     }
 
+    @Test
+    void shouldFindUserSummaryByUsername() {
+        User user = new User();
+        user.setUsername("summary_user");
+        user.setEmail("summary@example.com");
+        user.setPassword("secret");
+        user.setRole("USER");
+        userRepository.save(user);
+
+        Optional<UserSummary> found = userRepository.findSummaryByUsername("summary_user");
+
+        assertThat(found).isPresent();
+        assertThat(found.get().getEmail()).isEqualTo("summary@example.com");
+        assertThat(found.get().getRole()).isEqualTo("USER");
+    }
+
     @Test
     void shouldNotFindUserByNonExistingUsername() {
         User found = userRepository.findByUsername("nonexistent");
@@ -0,0 +1,73 @@
+package org.example.projectfinalspring.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccessLogRingBufferTest {
+
+    @Test
+    void drain_shouldReturnRecordsInOfferOrder() {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(4);
+        buffer.offer(1, "GET", "/api/tasks", "user", 200, 10, 3);
+        buffer.offer(2, "POST", "/api/tasks", null, 401, 5, 0);
+
+        List<String> records = new ArrayList<>();
+        int drained = buffer.drain((timestamp, method, path, user, status, latency, db) ->
+                records.add(timestamp + " " + method + " " + path + " " + user + " " + status + " " + latency + " " + db), 10);
+
+        assertThat(drained).isEqualTo(2);
+        assertThat(records).containsExactly("1 GET /api/tasks user 200 10 3", "2 POST /api/tasks null 401 5 0");
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void offer_fullBuffer_shouldDropAndCountWithoutBlocking() {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(2);
+
+        assertThat(buffer.offer(1, "GET", "/a", null, 200, 1, 0)).isTrue();
+        assertThat(buffer.offer(2, "GET", "/b", null, 200, 1, 0)).isTrue();
+        assertThat(buffer.offer(3, "GET", "/c", null, 200, 1, 0)).isFalse();
+        assertThat(buffer.droppedCount()).isEqualTo(1);
+
+        // Освобождённая ячейка снова доступна
+        assertThat(buffer.drain((t, m, p, u, s, l, d) -> { }, 1)).isEqualTo(1);
+        assertThat(buffer.offer(4, "GET", "/d", null, 200, 1, 0)).isTrue();
+        List<Long> timestamps = new ArrayList<>();
+        buffer.drain((t, m, p, u, s, l, d) -> timestamps.add(t), 10);
+        assertThat(timestamps).containsExactly(2L, 4L);
+    }
+
+    @Test
+    void offer_concurrentWriters_everyRecordIsDrainedOrCountedAsDropped() throws Exception {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(1024);
+        int writers = 4;
+        int perWriter = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch done = new CountDownLatch(writers);
+        for (int w = 0; w < writers; w++) {
+            executor.execute(() -> {
+                for (int i = 0; i < perWriter; i++) {
+                    buffer.offer(i, "GET", "/api/tasks", "user", 200, i, 0);
+                }
+                done.countDown();
+            });
+        }
+        AtomicInteger drained = new AtomicInteger();
+        while (done.getCount() > 0 || buffer.size() > 0) {
+            drained.addAndGet(buffer.drain((t, m, p, u, s, l, d) -> assertThat(p).isEqualTo("/api/tasks"), 256));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(drained.get() + buffer.droppedCount()).isEqualTo((long) writers * perWriter);
+    }
+}
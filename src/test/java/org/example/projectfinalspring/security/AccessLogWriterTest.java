@@ -0,0 +1,18 @@
+package org.example.projectfinalspring.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccessLogWriterTest {
+
+    @Test
+    void utf8Length_shouldMatchEncodedSize() {
+        for (String line : new String[]{"GET\t/api/users/1\tjohn\n", "PUT\t/api/users/1\tиван\n", "GET\t/€/😀\t-\n"}) {
+            assertThat(AccessLogWriter.utf8Length(new StringBuilder(line)))
+                    .isEqualTo(line.getBytes(StandardCharsets.UTF_8).length);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.projectfinalspring.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.example.projectfinalspring.repositories.RevokedTokenRepository;
+import org.example.projectfinalspring.services.TokenRevocationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Стоимость JwtRequestFilter до и после проверки токена один раз с кэшем.
+ * Запуск: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.example.projectfinalspring.security.JwtRequestFilterBenchmark}
+ * или из IDE через main.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtRequestFilterBenchmark {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    private String token;
+    private JwtRequestFilter cachedFilter;
+    private JwtRequestFilter uncachedFilter;
+
+    @Setup
+    public void setUp() {
+        JwtTokenUtil util = new JwtTokenUtil(SECRET, 3_600_000L, 10_000);
+        token = util.generateToken(1L, "user", "USER");
+        TokenRevocationService revocationService = emptyRevocationList();
+        cachedFilter = new JwtRequestFilter(util, revocationService);
+        // maximumSize 0: проверенные токены не хранятся, каждый запрос проверяет подпись заново
+        JwtTokenUtil uncached = new JwtTokenUtil(SECRET, 3_600_000L, 0);
+        uncachedFilter = new JwtRequestFilter(uncached, revocationService);
+    }
+
+    @Benchmark
+    public void legacyTripleParse(Blackhole blackhole) {
+        // Прежний путь: extractUsername, затем isTokenValid -> extractUsername и extractExpiration,
+        // каждый раз с новым парсером
+        String username = legacyClaims(token).getSubject();
+        boolean valid = legacyClaims(token).getSubject().equals(username)
+                && !legacyClaims(token).getExpiration().before(new Date());
+        blackhole.consume(valid);
+    }
+
+    @Benchmark
+    public Object filterUncached() throws Exception {
+        return runFilter(uncachedFilter);
+    }
+
+    @Benchmark
+    public Object filterCached() throws Exception {
+        return runFilter(cachedFilter);
+    }
+
+    // Загруженный пустой фильтр Блума: проверка отзыва не доходит до базы, как для большинства запросов
+    private static TokenRevocationService emptyRevocationList() {
+        RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+        when(repository.streamActiveIds(any())).thenReturn(Stream.empty());
+        TokenRevocationService service =
+                new TokenRevocationService(repository, mock(PlatformTransactionManager.class), 0.001, 10_000, 5_000);
+        service.run();
+        return service;
+    }
+
+    @SuppressWarnings("deprecation")
+    private Claims legacyClaims(String jwt) {
+        return Jwts.parser()
+                .setSigningKey(SECRET)
+                .parseClaimsJws(jwt)
+                .getBody();
+    }
+
+    private Object runFilter(JwtRequestFilter filter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(JwtRequestFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
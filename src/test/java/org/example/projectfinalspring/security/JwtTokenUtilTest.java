@@ -0,0 +1,47 @@
+package org.example.projectfinalspring.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenUtilTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    @Test
+    void verify_shouldReturnClaimsAndCacheThemForSameToken() {
+        JwtTokenUtil util = new JwtTokenUtil(SECRET, 60_000L, 100);
+        String token = util.generateToken(1L, "user", "USER");
+
+        VerifiedToken first = util.verify(token).orElseThrow();
+
+        assertThat(first.getSubject()).isEqualTo("user");
+        assertThat(first.getUserId()).isEqualTo(1L);
+        assertThat(first.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER");
+        assertThat(first.getExpiresAt()).isAfter(Instant.now());
+        assertThat(util.verify(token)).containsSame(first);
+    }
+
+    @Test
+    void verify_tamperedOrForeignToken_shouldBeRejected() {
+        JwtTokenUtil util = new JwtTokenUtil(SECRET, 60_000L, 100);
+        String token = util.generateToken(1L, "user", "USER");
+        String otherSecret = Base64.getEncoder().encodeToString("another-secret-another-secret-32".getBytes());
+        String foreign = new JwtTokenUtil(otherSecret, 60_000L, 100).generateToken(2L, "admin", "ADMIN");
+
+        assertThat(util.verify(token.substring(0, token.length() - 2) + "xx")).isEmpty();
+        assertThat(util.verify(foreign)).isEmpty();
+        assertThat(util.verify("not-a-token")).isEmpty();
+    }
+
+    @Test
+    void verify_expiredToken_shouldBeRejected() {
+        JwtTokenUtil util = new JwtTokenUtil(SECRET, -1_000L, 100);
+
+        assertThat(util.verify(util.generateToken(1L, "user", "USER"))).isEmpty();
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.projectfinalspring.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserPathAuthorizationManagerTest {
+
+    private final UserPathAuthorizationManager manager = new UserPathAuthorizationManager();
+
+    @Test
+    void authorize_ownerOrAdmin_shouldBeGranted() {
+        assertThat(isGranted(authentication(7L, "USER"), "7")).isTrue();
+        assertThat(isGranted(authentication(1L, "ADMIN"), "7")).isTrue();
+    }
+
+    @Test
+    void authorize_otherUserOrAnonymous_shouldBeDenied() {
+        assertThat(isGranted(authentication(8L, "USER"), "7")).isFalse();
+        assertThat(isGranted(authentication(8L, "USER"), "not-a-number")).isFalse();
+        assertThat(isGranted(null, "7")).isFalse();
+    }
+
+    private boolean isGranted(Authentication authentication, String userId) {
+        RequestAuthorizationContext context =
+                new RequestAuthorizationContext(new MockHttpServletRequest(), Map.of("user_id", userId));
+        return manager.authorize(() -> authentication, context).isGranted();
+    }
+
+    private static Authentication authentication(Long userId, String role) {
+        VerifiedToken token = new VerifiedToken("jti-" + userId, "user" + userId, userId, role, Instant.now(), Instant.now().plusSeconds(60));
+        return new UsernamePasswordAuthenticationToken(token, null, token.getAuthorities());
+    }
+}
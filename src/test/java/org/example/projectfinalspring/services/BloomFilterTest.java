@@ -0,0 +1,43 @@
+package org.example.projectfinalspring.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_shouldAlwaysFindInsertedValues() {
+        BloomFilter filter = BloomFilter.create(1_000, 0.001);
+        String[] values = new String[1_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = UUID.randomUUID().toString();
+            filter.put(values[i]);
+        }
+
+        for (String value : values) {
+            assertThat(filter.mightContain(value)).isTrue();
+        }
+    }
+
+    @Test
+    void mightContain_falsePositiveRateShouldStayNearConfigured() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(UUID.randomUUID().toString());
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        // Размер округляется вверх до степени двойки, поэтому фактическая доля не выше заданной с запасом
+        assertThat((double) falsePositives / probes).isLessThan(0.02);
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.projectfinalspring.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.projectfinalspring.entities.Task;
+import org.example.projectfinalspring.entities.TaskStatus;
+import org.example.projectfinalspring.repositories.NotificationRepository;
+import org.example.projectfinalspring.repositories.TaskDeadline;
+import org.example.projectfinalspring.repositories.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DeadlineReminderServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private DeadlineReminderService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DeadlineReminderService(mock(TaskRepository.class), mock(NotificationRepository.class),
+                mock(PlatformTransactionManager.class), true, Duration.ofMinutes(1), Duration.ofHours(24), 1000, 16);
+        service.bindTo(registry);
+    }
+
+    @Test
+    void onStatusChanged_reopenedTasks_shouldScheduleOnlyFutureDeadlines() {
+        LocalDate today = LocalDate.now();
+        List<TaskDeadline> reopened = List.of(
+                deadline(1L, today.plusDays(3)), deadline(2L, today), deadline(3L, today.minusDays(1)));
+
+        service.onStatusChanged(reopened, TaskStatus.NEW);
+
+        assertThat(pending()).isEqualTo(2);
+    }
+
+    @Test
+    void onStatusChanged_closedTasks_shouldCancelReminders() {
+        List<TaskDeadline> tasks = List.of(deadline(1L, LocalDate.now().plusDays(3)), deadline(2L, LocalDate.now().plusDays(5)));
+        service.onStatusChanged(tasks, TaskStatus.IN_PROGRESS);
+
+        service.onStatusChanged(tasks.subList(0, 1), TaskStatus.CANCELLED);
+
+        assertThat(pending()).isEqualTo(1);
+    }
+
+    @Test
+    void onTaskSaved_insideTransaction_shouldScheduleOnlyAfterCommit() {
+        Task task = new Task(1L, "task", null, LocalDate.now().plusDays(3), TaskStatus.NEW, null);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.onTaskSaved(task);
+            assertThat(pending()).isZero();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(pending()).isEqualTo(1);
+    }
+
+    @Test
+    void onTasksDeleted_rolledBack_shouldKeepReminders() {
+        List<TaskDeadline> tasks = List.of(deadline(1L, LocalDate.now().plusDays(3)), deadline(2L, LocalDate.now().plusDays(5)));
+        service.onStatusChanged(tasks, TaskStatus.NEW);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.onTasksDeleted(List.of(1L, 2L));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(pending()).isEqualTo(2);
+    }
+
+    private double pending() {
+        return registry.get("tasks.reminders.pending").gauge().value();
+    }
+
+    private static TaskDeadline deadline(Long id, LocalDate deadline) {
+        TaskDeadline task = mock(TaskDeadline.class);
+        when(task.getId()).thenReturn(id);
+        when(task.getDeadline()).thenReturn(deadline);
+        return task;
+    }
+}
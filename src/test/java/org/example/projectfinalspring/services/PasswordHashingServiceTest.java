@@ -0,0 +1,64 @@
+package org.example.projectfinalspring.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordHashingServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void verify_hashWithOtherCost_shouldReturnUpgradedHash() throws Exception {
+        service = new PasswordHashingService(new BCryptPasswordEncoder(5), registry, 5, 1, 4);
+        String oldHash = new BCryptPasswordEncoder(4).encode("secret");
+
+        PasswordHashingService.PasswordCheck check = service.verify("secret", oldHash).get(10, TimeUnit.SECONDS);
+
+        assertThat(check.isMatches()).isTrue();
+        assertThat(check.getUpgradedHash()).startsWith("$2a$05$");
+        assertThat(service.verify("wrong", oldHash).get(10, TimeUnit.SECONDS).isMatches()).isFalse();
+        assertThat(registry.get("auth.password.hash").tag("operation", "matches").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void verify_sameCost_shouldNotRehash() throws Exception {
+        service = new PasswordHashingService(new BCryptPasswordEncoder(4), registry, 4, 1, 4);
+        String hash = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertThat(service.verify("secret", hash).get(10, TimeUnit.SECONDS).getUpgradedHash()).isNull();
+    }
+
+    @Test
+    void verify_saturatedPool_shouldRejectImmediately() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = mock(PasswordEncoder.class);
+        when(blocking.matches(any(), any())).thenAnswer(invocation -> release.await(10, TimeUnit.SECONDS));
+        service = new PasswordHashingService(blocking, registry, 10, 1, 1);
+
+        service.verify("a", "hash");
+        service.verify("b", "hash");
+
+        assertThatThrownBy(() -> service.verify("c", "hash")).isInstanceOf(RejectedExecutionException.class);
+        assertThat(registry.get("auth.password.rejected").counter().count()).isEqualTo(1);
+        release.countDown();
+    }
+}
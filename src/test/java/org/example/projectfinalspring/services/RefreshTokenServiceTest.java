@@ -0,0 +1,77 @@
+package org.example.projectfinalspring.services;
+
+import org.example.projectfinalspring.entities.RefreshToken;
+import org.example.projectfinalspring.repositories.RefreshTokenRepository;
+import org.example.projectfinalspring.repositories.RefreshTokenUse;
+import org.example.projectfinalspring.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RefreshTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new RefreshTokenService(refreshTokenRepository, userRepository, transactionManager,
+                Duration.ofDays(30), 100);
+    }
+
+    @Test
+    void rotate_unusedToken_shouldIssueNextTokenInSameFamily() {
+        String raw = "raw-token";
+        when(refreshTokenRepository.markUsed(RefreshTokenService.hash(raw)))
+                .thenReturn(Optional.of(new RefreshTokenUse(7L, "family", "john", "USER")));
+
+        RefreshTokenService.Rotation rotation = service.rotate(raw).orElseThrow();
+
+        assertThat(rotation.getOwner().getUsername()).isEqualTo("john");
+        assertThat(rotation.getRefreshToken()).isNotEqualTo(raw);
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertThat(saved.getValue().getFamilyId()).isEqualTo("family");
+        // В базе только хеш выданного токена
+        assertThat(saved.getValue().getTokenHash()).isEqualTo(RefreshTokenService.hash(rotation.getRefreshToken()));
+        verify(refreshTokenRepository, never()).deleteFamily(anyString());
+    }
+
+    @Test
+    void rotate_alreadyUsedToken_shouldRevokeWholeFamily() {
+        String hash = RefreshTokenService.hash("stolen");
+        when(refreshTokenRepository.markUsed(hash)).thenReturn(Optional.empty());
+        when(refreshTokenRepository.findFamilyOfUsedToken(hash)).thenReturn(Optional.of("family"));
+
+        assertThat(service.rotate("stolen")).isEmpty();
+        verify(refreshTokenRepository).deleteFamily("family");
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void rotate_unknownToken_shouldFailWithoutRevoking() {
+        assertThat(service.rotate("unknown")).isEmpty();
+        verify(refreshTokenRepository, never()).deleteFamily(anyString());
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.projectfinalspring.services;
+
+import org.example.projectfinalspring.ProjectFinalSpringApplication;
+import org.example.projectfinalspring.entities.Task;
+import org.example.projectfinalspring.entities.TaskStatus;
+import org.example.projectfinalspring.entities.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Вставка задач по одной (createTask) против пакетной (createTasks), результат — время на задачу.
+ * Нужна запущенная база из application.yml; пользователь бенчмарка и его задачи удаляются в конце.
+ * Запуск: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.example.projectfinalspring.services.TaskBatchInsertBenchmark}
+ * или из IDE через main.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskBatchInsertBenchmark {
+
+    private static final int TASK_COUNT = 500;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private UserService userService;
+    private User user;
+    private List<Task> tasks;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(ProjectFinalSpringApplication.class)
+                .profiles("test")
+                .properties("server.port=0")
+                .run();
+        taskService = context.getBean(TaskService.class);
+        userService = context.getBean(UserService.class);
+
+        User newUser = new User();
+        newUser.setUsername("bench_" + System.nanoTime());
+        newUser.setEmail(newUser.getUsername() + "@test.com");
+        newUser.setPassword("pass123");
+        newUser.setRole("USER");
+        user = userService.createUser(newUser);
+    }
+
+    // Сущности после persist управляемые и с id, поэтому на каждый вызов нужны новые
+    @Setup(Level.Invocation)
+    public void newTasks() {
+        tasks = new ArrayList<>(TASK_COUNT);
+        for (int i = 0; i < TASK_COUNT; i++) {
+            Task task = new Task();
+            task.setTitle("bench " + i);
+            task.setDeadline(LocalDate.now().plusDays(i % 30));
+            task.setStatus(TaskStatus.PENDING);
+            task.setUser(user);
+            tasks.add(task);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        try {
+            userService.deleteUser(user.getId());
+        } finally {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASK_COUNT)
+    public void singleInserts() {
+        for (Task task : tasks) {
+            taskService.createTask(task);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASK_COUNT)
+    public List<Long> batchInsert() {
+        return taskService.createTasks(tasks);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(TaskBatchInsertBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
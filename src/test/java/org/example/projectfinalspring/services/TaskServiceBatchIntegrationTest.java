@@ -0,0 +1,99 @@
+package org.example.projectfinalspring.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.projectfinalspring.entities.Task;
+import org.example.projectfinalspring.entities.TaskStatus;
+import org.example.projectfinalspring.entities.User;
+import org.example.projectfinalspring.repositories.TaskRepository;
+import org.example.projectfinalspring.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Пакетная вставка задач. Сравнение скорости с вставкой по одной — в TaskBatchInsertBenchmark.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class TaskServiceBatchIntegrationTest {
+
+    private static final int TASK_COUNT = 2_000;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername("batch_user_" + System.nanoTime());
+        testUser.setEmail(testUser.getUsername() + "@test.com");
+        testUser.setPassword("pass123");
+        testUser.setRole("USER");
+
+        testUser = userRepository.save(testUser);
+    }
+
+    @Test
+    void createTasks_shouldPersistAllTasksInJdbcBatches() {
+        long batchedBefore = taskInserts(true);
+        long singleBefore = taskInserts(false);
+
+        List<Long> ids = taskService.createTasks(newTasks());
+
+        assertThat(ids).hasSize(TASK_COUNT).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(taskRepository.findByUserId(testUser.getId()))
+                .extracting(Task::getId)
+                .containsExactlyInAnyOrderElementsOf(ids);
+        // Счётчик db.sql ведёт прокси источника данных: одна запись на executeBatch
+        assertThat(taskInserts(true) - batchedBefore).isEqualTo(TASK_COUNT / batchSize);
+        assertThat(taskInserts(false) - singleBefore).isZero();
+    }
+
+    private long taskInserts(boolean batch) {
+        return meterRegistry.find("db.sql")
+                .tag("batch", Boolean.toString(batch))
+                .timers().stream()
+                .filter(timer -> timer.getId().getTag("statement").startsWith("insert into tasks "))
+                .mapToLong(Timer::count)
+                .sum();
+    }
+
+    private List<Task> newTasks() {
+        List<Task> tasks = new ArrayList<>(TASK_COUNT);
+        for (int i = 0; i < TASK_COUNT; i++) {
+            Task task = new Task();
+            task.setTitle("batch " + i);
+            task.setDeadline(LocalDate.now().plusDays(i % 30));
+            task.setStatus(TaskStatus.PENDING);
+            task.setUser(testUser);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.projectfinalspring.services;
+
+import jakarta.persistence.EntityManager;
+import org.example.projectfinalspring.entities.Task;
+import org.example.projectfinalspring.entities.TaskStats;
+import org.example.projectfinalspring.entities.TaskStatus;
+import org.example.projectfinalspring.entities.User;
+import org.example.projectfinalspring.repositories.TaskRepository;
+import org.example.projectfinalspring.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class TaskServiceStatsIntegrationTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername("stats_user_" + System.nanoTime());
+        testUser.setEmail(testUser.getUsername() + "@test.com");
+        testUser.setPassword("pass123");
+        testUser.setRole("USER");
+
+        testUser = userRepository.saveAndFlush(testUser);
+    }
+
+    @Test
+    void deleteTask_overdueSinceLastReconcile_shouldNotDriveOverdueCountNegative() {
+        Task task = new Task();
+        task.setTitle("due today");
+        task.setDeadline(LocalDate.now());
+        task.setStatus(TaskStatus.NEW);
+        task.setUser(testUser);
+        Long id = taskService.createTask(task).getId();
+        assertThat(stats().getOverdueCount()).isZero();
+
+        // Срок прошёл, а сверка ещё не запускалась: сдвигаем дедлайн мимо приложения
+        entityManager.flush();
+        entityManager.createNativeQuery("UPDATE tasks SET deadline = :deadline WHERE id = :id")
+                .setParameter("deadline", LocalDate.now().minusDays(1))
+                .setParameter("id", id)
+                .executeUpdate();
+        entityManager.clear();
+
+        assertThat(taskService.deleteTask(testUser.getId(), id, null)).isTrue();
+        entityManager.flush();
+        entityManager.clear();
+
+        TaskStats stats = stats();
+        assertThat(stats.getTaskCount()).isZero();
+        assertThat(stats.getOverdueCount()).isZero();
+    }
+
+    private TaskStats stats() {
+        return taskRepository.findStatsByUserId(testUser.getId()).stream()
+                .filter(row -> row.getStatus() == TaskStatus.NEW)
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,204 @@
+package org.example.projectfinalspring.services;
+
+import org.example.projectfinalspring.entities.ArchivedTask;
+import org.example.projectfinalspring.entities.Task;
+import org.example.projectfinalspring.entities.TaskStatus;
+import org.example.projectfinalspring.entities.TaskTombstone;
+import org.example.projectfinalspring.entities.User;
+import org.example.projectfinalspring.repositories.TaskDeadline;
+import org.example.projectfinalspring.repositories.TaskFilter;
+import org.example.projectfinalspring.repositories.TaskRepository;
+import org.example.projectfinalspring.repositories.TaskStatsDelta;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 10);
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private DeadlineReminderService reminderService;
+
+    @InjectMocks
+    private TaskService taskService;
+
+    @Test
+    void findPage_withoutArchive_shouldNotQueryArchive() {
+        TaskFilter filter = new TaskFilter();
+        when(taskRepository.findPage(filter, null, null, 3)).thenReturn(List.of(task(1L, DAY)));
+
+        assertThat(taskService.findPage(filter, null, 3)).extracting(Task::getId).containsExactly(1L);
+        verify(taskRepository, never()).findArchivedPage(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void findPage_includeArchived_shouldMergeByDeadlineAndId() {
+        TaskFilter filter = new TaskFilter();
+        filter.setIncludeArchived(true);
+        when(taskRepository.findPage(filter, null, null, 3))
+                .thenReturn(List.of(task(5L, DAY), task(2L, DAY.plusDays(1))));
+        List<ArchivedTask> archived = List.of(archived(1L, DAY.minusDays(3)), archived(3L, DAY));
+        when(taskRepository.findArchivedPage(filter, null, null, 3)).thenReturn(archived);
+
+        List<Task> page = taskService.findPage(filter, null, 3);
+
+        assertThat(page).extracting(Task::getId).containsExactly(1L, 3L, 5L);
+    }
+
+    @Test
+    void findPage_includeArchived_shouldSkipArchiveForOpenStatuses() {
+        TaskFilter filter = new TaskFilter();
+        filter.setIncludeArchived(true);
+        filter.setStatuses(List.of(TaskStatus.NEW));
+
+        taskService.findPage(filter, null, 3);
+
+        verify(taskRepository, never()).findArchivedPage(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void updateTask_statusChange_shouldMoveStatsBetweenStatuses() {
+        User user = new User();
+        user.setId(7L);
+        LocalDate overdue = LocalDate.now().minusDays(1);
+        Task current = new Task(1L, "task", null, overdue, TaskStatus.IN_PROGRESS, user);
+        when(taskRepository.findByIdAndUserId(1L, 7L)).thenReturn(Optional.of(current));
+        when(taskRepository.saveAndFlush(current)).thenReturn(current);
+
+        taskService.updateTask(7L, 1L, new Task(null, "task", null, overdue, TaskStatus.DONE, null));
+
+        ArgumentCaptor<TaskStatsDelta> captor = ArgumentCaptor.forClass(TaskStatsDelta.class);
+        verify(taskRepository).applyStatsDelta(captor.capture());
+        List<String> rows = new ArrayList<>();
+        captor.getValue().forEach((userId, status, taskDelta, overdueDelta) ->
+                rows.add(userId + ":" + status + ":" + taskDelta + ":" + overdueDelta));
+        // Завершённая задача перестаёт считаться просроченной
+        assertThat(rows).containsExactly(
+                "7:" + TaskStatus.IN_PROGRESS.getCode() + ":-1:-1",
+                "7:" + TaskStatus.DONE.getCode() + ":1:0");
+    }
+
+    @Test
+    void updateTask_sameStatusAndDeadline_shouldLeaveStatsUntouched() {
+        User user = new User();
+        user.setId(7L);
+        Task current = new Task(1L, "task", null, DAY, TaskStatus.NEW, user);
+        when(taskRepository.findByIdAndUserId(1L, 7L)).thenReturn(Optional.of(current));
+        when(taskRepository.saveAndFlush(current)).thenReturn(current);
+
+        taskService.updateTask(7L, 1L, new Task(null, "renamed", null, DAY, TaskStatus.NEW, null));
+
+        ArgumentCaptor<TaskStatsDelta> captor = ArgumentCaptor.forClass(TaskStatsDelta.class);
+        verify(taskRepository).applyStatsDelta(captor.capture());
+        assertThat(captor.getValue().isEmpty()).isTrue();
+    }
+
+    @Test
+    void deleteTask_foreignTask_shouldNotDelete() {
+        when(taskRepository.findByIdAndUserId(1L, 8L)).thenReturn(Optional.empty());
+
+        assertThat(taskService.deleteTask(8L, 1L, null)).isFalse();
+
+        verify(taskRepository, never()).delete(any(Task.class));
+        verify(taskRepository, never()).applyStatsDelta(any());
+    }
+
+    @Test
+    void transitionStatus_shouldRescheduleRemindersOfChangedTasks() {
+        TaskFilter filter = new TaskFilter();
+        filter.setStatuses(List.of(TaskStatus.DONE));
+        List<TaskDeadline> changed = List.of(changedTask(1L), changedTask(2L));
+        when(taskRepository.updateStatusReturningDeadlines(filter, TaskStatus.NEW)).thenReturn(changed);
+
+        assertThat(taskService.transitionStatusReturningIds(filter, TaskStatus.NEW)).containsExactly(1L, 2L);
+
+        verify(reminderService).onStatusChanged(changed, TaskStatus.NEW);
+    }
+
+    @Test
+    void findChanges_shouldMergeTombstonesAndKeepLastEventPerTask() {
+        ReflectionTestUtils.setField(taskService, "syncSafetyWindow", Duration.ofSeconds(15));
+        OffsetDateTime since = OffsetDateTime.now().minusHours(1);
+        when(taskRepository.findChangedSince(eq(7L), eq(since), eq(0L), any(), any()))
+                .thenReturn(List.of(changed(1L, since.plusSeconds(1)), changed(2L, since.plusSeconds(3))));
+        List<TaskTombstone> tombstones = List.of(tombstone(3L, since.plusSeconds(1)), tombstone(1L, since.plusSeconds(2)));
+        when(taskRepository.findTombstonesSince(eq(7L), eq(since), eq(0L), any(), any())).thenReturn(tombstones);
+
+        TaskChanges changes = taskService.findChanges(7L, new TaskSyncCursor(since, 0L), 10);
+
+        assertThat(changes.getChanged()).extracting(Task::getId).containsExactly(2L);
+        assertThat(changes.getDeleted()).containsExactly(3L, 1L);
+        assertThat(changes.isHasMore()).isFalse();
+        assertThat(changes.getNext().getTime()).isAfter(since.plusSeconds(3));
+    }
+
+    @Test
+    void findChanges_fullPage_shouldContinueFromLastEvent() {
+        ReflectionTestUtils.setField(taskService, "syncSafetyWindow", Duration.ofSeconds(15));
+        OffsetDateTime since = OffsetDateTime.now().minusHours(1);
+        when(taskRepository.findChangedSince(eq(7L), eq(since), eq(0L), any(), any()))
+                .thenReturn(List.of(changed(1L, since.plusSeconds(1)), changed(2L, since.plusSeconds(3))));
+        List<TaskTombstone> tombstones = List.of(tombstone(3L, since.plusSeconds(2)));
+        when(taskRepository.findTombstonesSince(eq(7L), eq(since), eq(0L), any(), any())).thenReturn(tombstones);
+
+        TaskChanges changes = taskService.findChanges(7L, new TaskSyncCursor(since, 0L), 2);
+
+        assertThat(changes.getChanged()).extracting(Task::getId).containsExactly(1L);
+        assertThat(changes.getDeleted()).containsExactly(3L);
+        assertThat(changes.isHasMore()).isTrue();
+        assertThat(changes.getNext().getTime()).isEqualTo(since.plusSeconds(2));
+        assertThat(changes.getNext().getId()).isEqualTo(3L);
+    }
+
+    private static Task changed(Long id, OffsetDateTime updatedAt) {
+        Task task = task(id, DAY);
+        task.setUpdatedAt(updatedAt);
+        return task;
+    }
+
+    private static TaskTombstone tombstone(Long taskId, OffsetDateTime deletedAt) {
+        TaskTombstone tombstone = mock(TaskTombstone.class);
+        when(tombstone.getTaskId()).thenReturn(taskId);
+        when(tombstone.getDeletedAt()).thenReturn(deletedAt);
+        return tombstone;
+    }
+
+    private static TaskDeadline changedTask(Long id) {
+        TaskDeadline task = mock(TaskDeadline.class);
+        when(task.getId()).thenReturn(id);
+        return task;
+    }
+
+    private static Task task(Long id, LocalDate deadline) {
+        return new Task(id, "task " + id, null, deadline, TaskStatus.NEW, null);
+    }
+
+    private static ArchivedTask archived(Long id, LocalDate deadline) {
+        ArchivedTask archived = mock(ArchivedTask.class);
+        when(archived.getId()).thenReturn(id);
+        when(archived.getDeadline()).thenReturn(deadline);
+        return archived;
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.projectfinalspring.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    @Test
+    void advanceTo_shouldFireEntriesOnTheirTickAcrossLevels() {
+        TimingWheel wheel = new TimingWheel(1_000, 4);
+        wheel.schedule(1, 1_005);
+        wheel.schedule(2, 1_000 + 64 * 3 + 7);
+        wheel.schedule(3, 1_000 + 64 * 64 * 5 + 11);
+        wheel.schedule(4, 1_000 + (1L << 30));
+
+        assertThat(firedBetween(wheel, 1_004)).isEmpty();
+        assertThat(firedBetween(wheel, 1_005)).containsExactly(1L);
+        assertThat(firedBetween(wheel, 1_000 + 64 * 3 + 6)).isEmpty();
+        assertThat(firedBetween(wheel, 1_000 + 64 * 3 + 7)).containsExactly(2L);
+        assertThat(firedBetween(wheel, 1_000 + 64 * 64 * 5 + 10)).isEmpty();
+        assertThat(firedBetween(wheel, 1_000 + 64 * 64 * 5 + 11)).containsExactly(3L);
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void schedule_existingId_shouldMoveEntry() {
+        TimingWheel wheel = new TimingWheel(0, 4);
+        wheel.schedule(7, 500);
+        wheel.schedule(7, 20);
+
+        assertThat(firedBetween(wheel, 20)).containsExactly(7L);
+        assertThat(firedBetween(wheel, 1_000)).isEmpty();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void scheduleIfAbsent_shouldKeepExistingEntry() {
+        TimingWheel wheel = new TimingWheel(0, 4);
+        wheel.schedule(7, 20);
+
+        assertThat(wheel.scheduleIfAbsent(7, 500)).isFalse();
+        assertThat(firedBetween(wheel, 20)).containsExactly(7L);
+    }
+
+    @Test
+    void cancel_shouldRemoveEntry() {
+        TimingWheel wheel = new TimingWheel(0, 4);
+        wheel.schedule(1, 100);
+        wheel.schedule(2, 100);
+
+        assertThat(wheel.cancel(1)).isTrue();
+        assertThat(wheel.cancel(1)).isFalse();
+        assertThat(firedBetween(wheel, 100)).containsExactly(2L);
+    }
+
+    @Test
+    void schedule_pastTick_shouldFireOnNextAdvance() {
+        TimingWheel wheel = new TimingWheel(100, 4);
+        wheel.schedule(1, 10);
+
+        assertThat(firedBetween(wheel, 100)).containsExactly(1L);
+    }
+
+    @Test
+    void advanceTo_randomSchedule_shouldFireEveryEntryExactlyOnTime() {
+        Random random = new Random(42);
+        TimingWheel wheel = new TimingWheel(0, 16);
+        Map<Long, Long> expected = new HashMap<>();
+        for (long id = 1; id <= 20_000; id++) {
+            long tick = random.nextInt(300_000);
+            wheel.schedule(id, tick);
+            expected.put(id, tick);
+        }
+        for (long id = 1; id <= 20_000; id += 3) {
+            wheel.cancel(id);
+            expected.remove(id);
+        }
+
+        Map<Long, Long> fired = new HashMap<>();
+        for (long tick = 0; tick < 300_000; tick += 997) {
+            long now = tick;
+            wheel.advanceTo(now, id -> fired.put(id, now));
+        }
+        wheel.advanceTo(300_000, id -> fired.put(id, 300_000L));
+
+        assertThat(fired.keySet()).isEqualTo(expected.keySet());
+        // Колесо продвигается шагами по 997 тиков, поэтому запись срабатывает на первом шаге не раньше срока
+        expected.forEach((id, tick) -> assertThat(fired.get(id)).isBetween(tick, tick + 997));
+        assertThat(wheel.size()).isZero();
+    }
+
+    private static List<Long> firedBetween(TimingWheel wheel, long tick) {
+        List<Long> fired = new ArrayList<>();
+        wheel.advanceTo(tick, fired::add);
+        return fired;
+    }
+}
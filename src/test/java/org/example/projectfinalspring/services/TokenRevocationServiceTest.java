@@ -0,0 +1,74 @@
+package org.example.projectfinalspring.services;
+
+import org.example.projectfinalspring.repositories.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TokenRevocationService(revokedTokenRepository, transactionManager, 0.001, 1_000, 100);
+    }
+
+    @Test
+    void isRevoked_beforeFirstLoad_shouldCheckDatabase() {
+        when(revokedTokenRepository.existsById("a")).thenReturn(true);
+
+        assertThat(service.isRevoked("a")).isTrue();
+    }
+
+    @Test
+    void isRevoked_loadedFilter_shouldQueryDatabaseOnlyOnHit() {
+        when(revokedTokenRepository.streamActiveIds(any())).thenReturn(Stream.of("revoked"));
+        service.run();
+        when(revokedTokenRepository.existsById("revoked")).thenReturn(true);
+
+        assertThat(service.isRevoked("revoked")).isTrue();
+        assertThat(service.isRevoked("active")).isFalse();
+        verify(revokedTokenRepository, never()).existsById("active");
+        verify(revokedTokenRepository).deleteExpiredBefore(any(), anyInt());
+    }
+
+    @Test
+    void revoke_shouldBeVisibleLocallyWithoutRefresh() {
+        when(revokedTokenRepository.streamActiveIds(any())).thenReturn(Stream.empty());
+        service.run();
+
+        service.revoke("jti", 7L, Instant.now().plusSeconds(60));
+        when(revokedTokenRepository.existsById("jti")).thenReturn(true);
+
+        assertThat(service.isRevoked("jti")).isTrue();
+        verify(revokedTokenRepository).insertIfAbsent(eq("jti"), eq(7L), any(OffsetDateTime.class));
+    }
+
+    @Test
+    void revoke_expiredToken_shouldNotBeStored() {
+        service.revoke("jti", 7L, Instant.now().minusSeconds(1));
+
+        verify(revokedTokenRepository, never()).insertIfAbsent(anyString(), any(), any());
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.projectfinalspring.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.example.projectfinalspring.entities.User;
+import org.example.projectfinalspring.repositories.TaskRepository;
+import org.example.projectfinalspring.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserDeletionServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private UsernameCache usernameCache;
+
+    @Mock
+    private DeadlineReminderService reminderService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private UserDeletionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new UserDeletionService(userRepository, taskRepository, usernameCache, reminderService, transactionManager,
+                2, 1, 10, Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void delete_shouldRemoveTasksInChunksBeforeUser() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("john");
+        user.setVersion(0L);
+        when(taskRepository.deleteByUserId(1L, 2)).thenReturn(List.of(1L, 2L), List.of(3L), List.of());
+        when(taskRepository.deleteArchivedByUserId(1L, 2)).thenReturn(0);
+        when(entityManager.find(User.class, 1L, LockModeType.PESSIMISTIC_WRITE)).thenReturn(user);
+
+        service.delete(1L, null);
+
+        InOrder order = inOrder(taskRepository, userRepository);
+        order.verify(taskRepository, times(3)).deleteByUserId(1L, 2);
+        order.verify(taskRepository).deleteChangeCounter(1L);
+        order.verify(userRepository).delete(user);
+        verify(usernameCache).evict("john");
+        verify(reminderService).onTasksDeleted(List.of(1L, 2L));
+        verify(reminderService).onTasksDeleted(List.of(3L));
+    }
+
+    @Test
+    void delete_shouldLockAndBumpVersionBeforeFirstChunk() {
+        User user = new User();
+        user.setId(1L);
+        user.setVersion(2L);
+        when(taskRepository.deleteByUserId(1L, 2)).thenReturn(List.of());
+        when(entityManager.find(User.class, 1L, LockModeType.PESSIMISTIC_WRITE)).thenReturn(user);
+
+        service.delete(1L, 2L);
+
+        InOrder order = inOrder(entityManager, taskRepository);
+        order.verify(entityManager).lock(user, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+        order.verify(taskRepository).deleteByUserId(1L, 2);
+    }
+
+    @Test
+    void delete_versionMismatch_shouldNotTouchTasks() {
+        User user = new User();
+        user.setId(1L);
+        user.setVersion(3L);
+        when(entityManager.find(User.class, 1L, LockModeType.PESSIMISTIC_WRITE)).thenReturn(user);
+
+        assertThatThrownBy(() -> service.delete(1L, 2L))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        verifyNoInteractions(taskRepository);
+        verify(entityManager, never()).lock(any(), any());
+    }
+
+    @Test
+    void delete_userChangedWhileDeletingTasks_shouldKeepUser() {
+        User claimed = new User();
+        claimed.setId(1L);
+        claimed.setVersion(3L);
+        User changed = new User();
+        changed.setId(1L);
+        changed.setVersion(4L);
+        when(taskRepository.deleteByUserId(1L, 2)).thenReturn(List.of(1L), List.of());
+        when(entityManager.find(User.class, 1L, LockModeType.PESSIMISTIC_WRITE)).thenReturn(claimed, changed);
+
+        assertThatThrownBy(() -> service.delete(1L, 3L))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        verify(taskRepository, never()).deleteChangeCounter(anyLong());
+        verify(userRepository, never()).delete(any());
+    }
+}
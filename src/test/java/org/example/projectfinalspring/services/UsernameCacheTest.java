@@ -0,0 +1,65 @@
+package org.example.projectfinalspring.services;
+
+import org.example.projectfinalspring.repositories.UserAccount;
+import org.example.projectfinalspring.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UsernameCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserAccount account;
+
+    private UsernameCache usernameCache;
+
+    @BeforeEach
+    void setUp() {
+        usernameCache = new UsernameCache(userRepository, 100, Duration.ofMinutes(5), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void get_shouldQueryRepositoryOnlyOnce() {
+        when(userRepository.findAccountByUsername("alice")).thenReturn(Optional.of(account));
+
+        assertThat(usernameCache.get("alice")).contains(account);
+        assertThat(usernameCache.get("alice")).contains(account);
+
+        verify(userRepository, times(1)).findAccountByUsername("alice");
+    }
+
+    @Test
+    void get_shouldCacheMissingUsername() {
+        when(userRepository.findAccountByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertThat(usernameCache.get("ghost")).isEmpty();
+        assertThat(usernameCache.get("ghost")).isEmpty();
+
+        verify(userRepository, times(1)).findAccountByUsername("ghost");
+    }
+
+    @Test
+    void evict_shouldReloadOnNextLookup() {
+        when(userRepository.findAccountByUsername("bob"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(account));
+
+        assertThat(usernameCache.get("bob")).isEmpty();
+        usernameCache.evict("bob");
+
+        assertThat(usernameCache.get("bob")).contains(account);
+        verify(userRepository, times(2)).findAccountByUsername("bob");
+    }
+}
@@ -0,0 +1,3 @@
+-- Только для тестов: каждый контекст начинается с пустой схемы, как раньше при ddl-auto: create
+DROP SCHEMA IF EXISTS public CASCADE;
+CREATE SCHEMA public;